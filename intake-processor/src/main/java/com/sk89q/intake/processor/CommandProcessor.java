@@ -0,0 +1,200 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic.Kind;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@code CommandRegistrar} for every class with methods
+ * annotated with {@code @Command}, so that the commands can be registered
+ * and invoked without reflection.
+ *
+ * <p>The parameters of command methods are checked the same way that
+ * {@code ArgumentParser} checks them at runtime, so that a misplaced
+ * {@code @Optional} or {@code @Switch} is reported when compiling.</p>
+ *
+ * <p>Classes whose commands can't be called from generated code, such as
+ * private classes or classes with private command methods, are left to
+ * be registered through reflection.</p>
+ */
+@SupportedAnnotationTypes(CommandProcessor.COMMAND)
+public class CommandProcessor extends AbstractProcessor {
+
+    static final String COMMAND = "com.sk89q.intake.Command";
+    static final String OPTIONAL = "com.sk89q.intake.parametric.annotation.Optional";
+    static final String SWITCH = "com.sk89q.intake.parametric.annotation.Switch";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement command = processingEnv.getElementUtils().getTypeElement(COMMAND);
+        if (command == null) {
+            return false;
+        }
+
+        Map<TypeElement, List<ExecutableElement>> commands = new LinkedHashMap<TypeElement, List<ExecutableElement>>();
+        List<TypeElement> invalid = new ArrayList<TypeElement>();
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(command)) {
+            if (element.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+
+            ExecutableElement method = (ExecutableElement) element;
+            TypeElement type = (TypeElement) method.getEnclosingElement();
+
+            List<ExecutableElement> methods = commands.get(type);
+            if (methods == null) {
+                methods = new ArrayList<ExecutableElement>();
+                commands.put(type, methods);
+            }
+            methods.add(method);
+
+            if (!checkParameters(method)) {
+                invalid.add(type);
+            }
+        }
+
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : commands.entrySet()) {
+            TypeElement type = entry.getKey();
+            if (!invalid.contains(type) && isAccessible(type, entry.getValue())) {
+                RegistrarWriter writer = new RegistrarWriter(processingEnv, type);
+                try {
+                    writer.write(entry.getValue());
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Kind.ERROR, "Could not write the command registrar: " + e.getMessage(), type);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Check that the parameters of a command method can be parsed.
+     *
+     * <p>These are the same rules that {@code ArgumentParser.Builder}
+     * enforces when the command is built.</p>
+     *
+     * @param method The method
+     * @return Whether the parameters are valid
+     */
+    private boolean checkParameters(ExecutableElement method) {
+        Messager messager = processingEnv.getMessager();
+        boolean valid = true;
+        boolean seenOptional = false;
+
+        for (VariableElement parameter : method.getParameters()) {
+            boolean optional = hasAnnotation(parameter, OPTIONAL);
+            boolean flag = hasAnnotation(parameter, SWITCH);
+
+            if (optional && flag) {
+                messager.printMessage(Kind.ERROR, "Both @Optional and @Switch were found on the same parameter", parameter);
+                valid = false;
+            } else if (optional) {
+                seenOptional = true;
+            } else if (!flag && seenOptional) {
+                messager.printMessage(Kind.ERROR, "A non-optional parameter follows an optional parameter", parameter);
+                valid = false;
+            }
+        }
+
+        return valid;
+    }
+
+    /**
+     * Test whether generated code in the same package can call the
+     * command methods of a class.
+     *
+     * @param type The class
+     * @param methods The command methods
+     * @return Whether the methods are accessible
+     */
+    private boolean isAccessible(TypeElement type, List<ExecutableElement> methods) {
+        Messager messager = processingEnv.getMessager();
+
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                messager.printMessage(Kind.NOTE, "Commands are registered through reflection because the class is private", type);
+                return false;
+            }
+        }
+
+        for (ExecutableElement method : methods) {
+            if (method.getModifiers().contains(Modifier.PRIVATE)) {
+                messager.printMessage(Kind.NOTE, "Commands are registered through reflection because the method is private", method);
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Test whether an element has an annotation of the given type.
+     *
+     * @param element The element
+     * @param name The qualified name of the annotation type
+     * @return Whether the annotation is present
+     */
+    static boolean hasAnnotation(Element element, String name) {
+        return getAnnotation(element, name) != null;
+    }
+
+    /**
+     * Get the annotation of the given type on an element.
+     *
+     * @param element The element
+     * @param name The qualified name of the annotation type
+     * @return The annotation, or null if it is not present
+     */
+    static AnnotationMirror getAnnotation(Element element, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(name)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the source of the {@code CommandRegistrar} for one class.
+ */
+final class RegistrarWriter {
+
+    static final String SUFFIX = "_IntakeCommands";
+
+    private final Elements elements;
+    private final Types types;
+    private final ProcessingEnvironment processingEnv;
+    private final TypeElement type;
+    private final String packageName;
+    private final String simpleName;
+    private final String typeName;
+
+    /**
+     * Create a new instance.
+     *
+     * @param processingEnv The processing environment
+     * @param type The class containing the command methods
+     */
+    RegistrarWriter(ProcessingEnvironment processingEnv, TypeElement type) {
+        this.processingEnv = processingEnv;
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.type = type;
+
+        PackageElement pkg = elements.getPackageOf(type);
+        this.packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+
+        String binaryName = elements.getBinaryName(type).toString();
+        String localName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        // Doubling '$' keeps nested and top-level classes from colliding
+        this.simpleName = localName.replace("$", "$$") + SUFFIX;
+        this.typeName = getTypeName(type.asType());
+    }
+
+    /**
+     * Write the registrar.
+     *
+     * @param methods The command methods of the class
+     * @throws IOException Thrown if the source file can't be written
+     */
+    void write(List<ExecutableElement> methods) throws IOException {
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+        PrintWriter out = new PrintWriter(file.openWriter());
+        try {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("/**");
+            out.println(" * Registers the commands of {@link " + typeName + "}.");
+            out.println(" *");
+            out.println(" * <p>Generated by the Intake annotation processor.</p>");
+            out.println(" */");
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            out.println("public final class " + simpleName + " implements com.sk89q.intake.parametric.CommandRegistrar {");
+            out.println();
+            writeRegister(out, methods);
+            out.println();
+            writeGetMethod(out);
+            out.println();
+            writeInvoker(out, methods);
+            out.println();
+            out.println("}");
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeRegister(PrintWriter out, List<ExecutableElement> methods) {
+        out.println("    @Override");
+        out.println("    public void register(com.sk89q.intake.parametric.ParametricBuilder builder, "
+                + "com.sk89q.intake.dispatcher.Dispatcher dispatcher, Object object) {");
+        out.println("        " + typeName + " target = (" + typeName + ") object;");
+
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+
+            StringBuilder lookup = new StringBuilder();
+            lookup.append("getMethod(").append(literal(method.getSimpleName().toString()));
+            for (VariableElement parameter : method.getParameters()) {
+                lookup.append(", ").append(getTypeName(parameter.asType())).append(".class");
+            }
+            lookup.append(")");
+
+            StringBuilder aliases = new StringBuilder();
+            for (String alias : getAliases(method)) {
+                aliases.append(", ").append(literal(alias));
+            }
+
+            out.println("        dispatcher.registerCommand(builder.build(target, " + lookup + ", new Invoker(target, " + i + "))" + aliases + ");");
+        }
+
+        out.println("    }");
+    }
+
+    private void writeGetMethod(PrintWriter out) {
+        out.println("    private static java.lang.reflect.Method getMethod(String name, Class<?>... parameterTypes) {");
+        out.println("        try {");
+        out.println("            return " + typeName + ".class.getDeclaredMethod(name, parameterTypes);");
+        out.println("        } catch (NoSuchMethodException e) {");
+        out.println("            throw new com.sk89q.intake.parametric.IllegalParameterException("
+                + literal("The generated commands are out of date with " + typeName) + ", e);");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    private void writeInvoker(PrintWriter out, List<ExecutableElement> methods) {
+        out.println("    private static final class Invoker implements com.sk89q.intake.parametric.MethodInvoker {");
+        out.println("        private final " + typeName + " target;");
+        out.println("        private final int index;");
+        out.println();
+        out.println("        Invoker(" + typeName + " target, int index) {");
+        out.println("            this.target = target;");
+        out.println("            this.index = index;");
+        out.println("        }");
+        out.println();
+        out.println("        @Override");
+        out.println("        public void invoke(com.sk89q.intake.parametric.ParameterValues values) throws Exception {");
+        out.println("            switch (index) {");
+
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            String receiver = method.getModifiers().contains(Modifier.STATIC) ? typeName : "target";
+
+            StringBuilder call = new StringBuilder();
+            call.append(receiver).append(".").append(method.getSimpleName()).append("(");
+            List<? extends VariableElement> parameters = method.getParameters();
+            for (int j = 0; j < parameters.size(); j++) {
+                if (j > 0) {
+                    call.append(", ");
+                }
+                call.append(getValue(parameters.get(j).asType(), j));
+            }
+            call.append(");");
+
+            out.println("                case " + i + ":");
+            out.println("                    " + call);
+            out.println("                    break;");
+        }
+
+        out.println("                default:");
+        out.println("                    throw new IllegalStateException(\"Unknown command method #\" + index);");
+        out.println("            }");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    /**
+     * Get the aliases declared by the {@code @Command} annotation of a method.
+     *
+     * @param method The method
+     * @return The aliases
+     */
+    private String[] getAliases(ExecutableElement method) {
+        AnnotationMirror command = CommandProcessor.getAnnotation(method, CommandProcessor.COMMAND);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(command).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("aliases")) {
+                List<?> values = (List<?>) entry.getValue().getValue();
+                String[] aliases = new String[values.size()];
+                for (int i = 0; i < aliases.length; i++) {
+                    aliases[i] = (String) ((AnnotationValue) values.get(i)).getValue();
+                }
+                return aliases;
+            }
+        }
+        return new String[0];
+    }
+
+    /**
+     * Get the name of the erasure of a type, as written in source.
+     *
+     * @param type The type
+     * @return The name
+     */
+    private String getTypeName(TypeMirror type) {
+        TypeMirror erasure = types.erasure(type);
+        if (erasure.getKind() == TypeKind.ARRAY) {
+            return getTypeName(((ArrayType) erasure).getComponentType()) + "[]";
+        } else if (erasure.getKind() == TypeKind.DECLARED) {
+            return ((TypeElement) ((DeclaredType) erasure).asElement()).getQualifiedName().toString();
+        } else {
+            return erasure.getKind().name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    /**
+     * Get the expression that reads an argument from the parameter values.
+     * Primitives are read with the matching primitive getter so that they
+     * are not boxed.
+     *
+     * @param type The type of the parameter
+     * @param index The index of the parameter
+     * @return The expression
+     */
+    private String getValue(TypeMirror type, int index) {
+        if (type.getKind().isPrimitive()) {
+            String name = type.getKind().name();
+            return "values.get" + name.charAt(0) + name.substring(1).toLowerCase(Locale.ENGLISH) + "(" + index + ")";
+        } else {
+            return "(" + getTypeName(type) + ") values.get(" + index + ")";
+        }
+    }
+
+    private static String literal(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+}
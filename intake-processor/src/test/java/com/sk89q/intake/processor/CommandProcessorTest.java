@@ -0,0 +1,214 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.processor;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import com.sk89q.intake.Intake;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.dispatcher.SimpleDispatcher;
+import com.sk89q.intake.parametric.Injector;
+import com.sk89q.intake.parametric.ParametricBuilder;
+import com.sk89q.intake.parametric.provider.PrimitivesModule;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class CommandProcessorTest {
+
+    private static final String HEADER = "package test;\n"
+            + "import com.sk89q.intake.Command;\n"
+            + "import com.sk89q.intake.parametric.annotation.Optional;\n"
+            + "import com.sk89q.intake.parametric.annotation.Switch;\n"
+            + "import com.sk89q.intake.parametric.annotation.Text;\n"
+            + "import java.util.ArrayList;\n"
+            + "import java.util.List;\n";
+
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    private final File directory = Files.createTempDir();
+
+    @After
+    public void deleteDirectory() {
+        delete(directory);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private boolean compile(String name, String source) throws Exception {
+        File file = new File(directory, name + ".java");
+        Files.write(HEADER + source, file, Charsets.UTF_8);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, Charsets.UTF_8);
+        try {
+            List<String> options = ImmutableList.of("-d", directory.getPath(), "-s", directory.getPath(),
+                    "-classpath", System.getProperty("java.class.path"));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(file));
+            task.setProcessors(Arrays.asList(new CommandProcessor()));
+            return task.call();
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private List<String> getErrors() {
+        List<String> errors = Lists.newArrayList();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return errors;
+    }
+
+    @Test
+    public void testGeneratedRegistrar() throws Exception {
+        boolean success = compile("Commands", "public class Commands {\n"
+                + "    public final List<String> calls = new ArrayList<String>();\n"
+                + "    @Command(aliases = {\"add\", \"plus\"}, desc = \"Add numbers\")\n"
+                + "    public void add(int a, @Optional(\"2\") int b, @Switch('n') boolean negate) {\n"
+                + "        calls.add((negate ? -(a + b) : a + b) + \" \" + new Throwable().getStackTrace()[1].getClassName());\n"
+                + "    }\n"
+                + "    @Command(aliases = \"echo\", desc = \"Echo text\")\n"
+                + "    void echo(@Text String text) {\n"
+                + "        calls.add(text);\n"
+                + "    }\n"
+                + "}\n");
+        assertThat(getErrors(), Matchers.<String>empty());
+        assertThat(success, is(true));
+        assertThat(new File(directory, "test/Commands_IntakeCommands.java").exists(), is(true));
+
+        URLClassLoader loader = new URLClassLoader(new URL[] { directory.toURI().toURL() }, getClass().getClassLoader());
+        Object commands = loader.loadClass("test.Commands").newInstance();
+
+        Injector injector = Intake.createInjector();
+        injector.install(new PrimitivesModule());
+        ParametricBuilder builder = new ParametricBuilder(injector);
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        builder.registerMethodsAsCommands(dispatcher, commands);
+
+        assertThat(dispatcher.getAliases(), containsInAnyOrder("add", "plus", "echo"));
+        assertThat(dispatcher.get("plus").getDescription().getShortDescription(), equalTo("Add numbers"));
+
+        dispatcher.call("add 3", new Namespace(), ImmutableList.<String>of());
+        dispatcher.call("plus -n 3 4", new Namespace(), ImmutableList.<String>of());
+        dispatcher.call("echo hello world", new Namespace(), ImmutableList.<String>of());
+
+        @SuppressWarnings("unchecked")
+        List<String> calls = (List<String>) commands.getClass().getField("calls").get(commands);
+        assertThat(calls, contains("5 test.Commands_IntakeCommands$Invoker", "-7 test.Commands_IntakeCommands$Invoker", "hello world"));
+    }
+
+    @Test
+    public void testNestedClassNames() throws Exception {
+        boolean success = compile("Commands", "public class Commands {\n"
+                + "    public static class Inner {\n"
+                + "        @Command(aliases = \"nested\", desc = \"Nested\")\n"
+                + "        public void nested() {\n"
+                + "        }\n"
+                + "    }\n"
+                + "}\n"
+                + "class Commands_Inner {\n"
+                + "    @Command(aliases = \"top\", desc = \"Top-level\")\n"
+                + "    public void top() {\n"
+                + "    }\n"
+                + "}\n");
+        assertThat(getErrors(), Matchers.<String>empty());
+        assertThat(success, is(true));
+        assertThat(new File(directory, "test/Commands$$Inner_IntakeCommands.java").exists(), is(true));
+        assertThat(new File(directory, "test/Commands_Inner_IntakeCommands.java").exists(), is(true));
+
+        URLClassLoader loader = new URLClassLoader(new URL[] { directory.toURI().toURL() }, getClass().getClassLoader());
+        ParametricBuilder builder = new ParametricBuilder(Intake.createInjector());
+        SimpleDispatcher nested = new SimpleDispatcher();
+        builder.registerMethodsAsCommands(nested, loader.loadClass("test.Commands$Inner").newInstance());
+        SimpleDispatcher top = new SimpleDispatcher();
+        Constructor<?> constructor = loader.loadClass("test.Commands_Inner").getDeclaredConstructor();
+        constructor.setAccessible(true);
+        builder.registerMethodsAsCommands(top, constructor.newInstance());
+
+        assertThat(nested.getAliases(), contains("nested"));
+        assertThat(top.getAliases(), contains("top"));
+    }
+
+    @Test
+    public void testRequiredAfterOptional() throws Exception {
+        boolean success = compile("Commands", "public class Commands {\n"
+                + "    @Command(aliases = \"set\", desc = \"Set\")\n"
+                + "    public void set(@Optional String key, String value) {\n"
+                + "    }\n"
+                + "}\n");
+        assertThat(success, is(false));
+        assertThat(getErrors(), contains("A non-optional parameter follows an optional parameter"));
+        assertThat(new File(directory, "test/Commands_IntakeCommands.java").exists(), is(false));
+    }
+
+    @Test
+    public void testOptionalSwitch() throws Exception {
+        boolean success = compile("Commands", "public class Commands {\n"
+                + "    @Command(aliases = \"set\", desc = \"Set\")\n"
+                + "    public void set(String key, @Optional @Switch('v') String value) {\n"
+                + "    }\n"
+                + "}\n");
+        assertThat(success, is(false));
+        assertThat(getErrors(), contains("Both @Optional and @Switch were found on the same parameter"));
+    }
+
+    @Test
+    public void testPrivateClassIsSkipped() throws Exception {
+        boolean success = compile("Commands", "public class Commands {\n"
+                + "    private static class Hidden {\n"
+                + "        @Command(aliases = \"set\", desc = \"Set\")\n"
+                + "        public void set(String key) {\n"
+                + "        }\n"
+                + "    }\n"
+                + "}\n");
+        assertThat(success, is(true));
+        assertThat(new File(directory, "test/Commands$$Hidden_IntakeCommands.java").exists(), is(false));
+    }
+
+}
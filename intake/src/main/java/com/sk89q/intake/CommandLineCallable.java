@@ -0,0 +1,53 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake;
+
+import com.sk89q.intake.argument.CommandLine;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.util.auth.AuthorizationException;
+
+/**
+ * A command that can be executed with a {@link CommandLine} that was
+ * tokenized by a parent command.
+ *
+ * <p>Dispatchers pass the same line down to commands that implement this
+ * interface, so the input is split once no matter how deeply commands
+ * are nested.</p>
+ */
+public interface CommandLineCallable extends CommandCallable {
+
+    /**
+     * Execute the command with the tokens that remain on the line.
+     *
+     * <p>This must behave the same as calling
+     * {@link #call(String, Namespace, java.util.List)} with
+     * {@link CommandLine#getRemaining()} and
+     * {@link CommandLine#getParentCommands()}.</p>
+     *
+     * @param commandLine The line, with the tokens naming this command consumed
+     * @param namespace Additional values used for execution
+     * @return Whether the command succeeded
+     * @throws CommandException If there is an error with the command
+     * @throws InvocationCommandException If there is an error with executing the command
+     * @throws AuthorizationException If there is a authorization error
+     */
+    boolean call(CommandLine commandLine, Namespace namespace) throws CommandException, InvocationCommandException, AuthorizationException;
+
+}
@@ -188,7 +188,7 @@ public abstract class OptionType {
         @Override
         public CommandArgs transform(CommandArgs arguments) {
             String v = arguments.getFlags().containsKey(flag) ? "true" : "false";
-            return Arguments.copyOf(ImmutableList.of(v), arguments.getFlags(), arguments.getNamespace());
+            return Arguments.singletonOf(v, arguments.getFlags(), arguments.getNamespace());
         }
     }
 
@@ -221,7 +221,7 @@ public abstract class OptionType {
             if (value == null) {
                 return Arguments.copyOf(ImmutableList.<String>of(), arguments.getFlags(), arguments.getNamespace());
             }
-            return Arguments.copyOf(ImmutableList.of(value), arguments.getFlags(), arguments.getNamespace());
+            return Arguments.singletonOf(value, arguments.getFlags(), arguments.getNamespace());
         }
     }
 
@@ -19,56 +19,81 @@
 
 package com.sk89q.intake.argument;
 
-abstract class AbstractCommandArgs implements CommandArgs {
+import javax.annotation.Nullable;
+
+abstract class AbstractCommandArgs implements CommandArgs, SequenceArgs {
+
+    @Nullable
+    private NumberScanner scanner;
+
+    @Override
+    public NumberScanner getScanner() {
+        if (scanner == null) {
+            scanner = new NumberScanner();
+        }
+        return scanner;
+    }
 
     @Override
     public int nextInt() throws MissingArgumentException, ArgumentParseException {
-        String next = next();
-        try {
-            return Integer.parseInt(next);
-        } catch (NumberFormatException ignored) {
-            throw new ArgumentParseException("Expected a number, got '" + next + "'");
+        CharSequence next = nextSequence();
+        NumberScanner scanner = getScanner();
+        if (scanner.scanInt(next) != NumberScanner.OK) {
+            throw newNumberException(next);
         }
+        return scanner.getInt();
     }
 
     @Override
     public short nextShort() throws MissingArgumentException, ArgumentParseException {
-        String next = next();
-        try {
-            return Short.parseShort(next);
-        } catch (NumberFormatException ignored) {
-            throw new ArgumentParseException("Expected a number, got '" + next + "'");
+        CharSequence next = nextSequence();
+        NumberScanner scanner = getScanner();
+        if (scanner.scanInt(next) != NumberScanner.OK) {
+            throw newNumberException(next);
+        }
+        int value = scanner.getInt();
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw newNumberException(next);
         }
+        return (short) value;
     }
 
     @Override
     public byte nextByte() throws MissingArgumentException, ArgumentParseException {
-        String next = next();
-        try {
-            return Byte.parseByte(next);
-        } catch (NumberFormatException ignored) {
-            throw new ArgumentParseException("Expected a number, got '" + next + "'");
+        CharSequence next = nextSequence();
+        NumberScanner scanner = getScanner();
+        if (scanner.scanInt(next) != NumberScanner.OK) {
+            throw newNumberException(next);
+        }
+        int value = scanner.getInt();
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw newNumberException(next);
         }
+        return (byte) value;
     }
 
     @Override
     public double nextDouble() throws MissingArgumentException, ArgumentParseException {
-        String next = next();
-        try {
-            return Double.parseDouble(next);
-        } catch (NumberFormatException ignored) {
-            throw new ArgumentParseException("Expected a number, got '" + next + "'");
+        CharSequence next = nextSequence();
+        NumberScanner scanner = getScanner();
+        if (scanner.scanDouble(next) != NumberScanner.OK) {
+            throw newNumberException(next);
         }
+        return scanner.getDouble();
     }
 
     @Override
     public float nextFloat() throws MissingArgumentException, ArgumentParseException {
-        String next = next();
-        try {
-            return Float.parseFloat(next);
-        } catch (NumberFormatException ignored) {
-            throw new ArgumentParseException("Expected a number, got '" + next + "'");
+        CharSequence next = nextSequence();
+        NumberScanner scanner = getScanner();
+        if (scanner.scanDouble(next) != NumberScanner.OK) {
+            throw newNumberException(next);
+        }
+        float value = (float) scanner.getDouble();
+        if (Float.isInfinite(value)) {
+            throw newNumberException(next);
         }
+        return value;
     }
 
     @Override
@@ -83,4 +108,31 @@ abstract class AbstractCommandArgs implements CommandArgs {
         }
     }
 
+    @Override
+    public CharSequence nextSequence() throws MissingArgumentException {
+        return next();
+    }
+
+    @Override
+    public CharSequence peekSequence() throws MissingArgumentException {
+        return peek();
+    }
+
+    @Override
+    public CharSequence remainingSequence() throws MissingArgumentException {
+        if (!hasNext()) {
+            throw new MissingArgumentException();
+        }
+
+        StringBuilder builder = new StringBuilder(next());
+        while (hasNext()) {
+            builder.append(' ').append(next());
+        }
+        return builder;
+    }
+
+    private static ArgumentParseException newNumberException(CharSequence input) {
+        return new ArgumentParseException("Expected a number, got '" + input + "'");
+    }
+
 }
@@ -88,4 +88,89 @@ public final class Arguments {
         return new StringListArgs(arguments, flags, namespace);
     }
 
+    /**
+     * Create an argument stack that consists of a single argument.
+     *
+     * @param argument The argument
+     * @param flags A map of flags, where the key is the flag and the value may be null
+     * @param namespace The associated namespace
+     * @return The arguments
+     */
+    public static CommandArgs singletonOf(String argument, Map<Character, String> flags, Namespace namespace) {
+        return new SingletonArgs(argument, flags, namespace);
+    }
+
+    /**
+     * Read the next argument as a sequence of characters.
+     *
+     * <p>The sequence may be a view of the original input instead of a
+     * new string, so this should be preferred by callers that only need
+     * to compare, hash or parse the argument.</p>
+     *
+     * @param arguments The arguments
+     * @return The next argument
+     * @throws MissingArgumentException Thrown if there are no remaining arguments
+     */
+    public static CharSequence nextSequence(CommandArgs arguments) throws MissingArgumentException {
+        if (arguments instanceof SequenceArgs) {
+            return ((SequenceArgs) arguments).nextSequence();
+        }
+        return arguments.next();
+    }
+
+    /**
+     * Return the next argument as a sequence of characters without moving
+     * the pointer.
+     *
+     * @param arguments The arguments
+     * @return The next argument
+     * @throws MissingArgumentException Thrown if there are no remaining arguments
+     * @see #nextSequence(CommandArgs)
+     */
+    public static CharSequence peekSequence(CommandArgs arguments) throws MissingArgumentException {
+        if (arguments instanceof SequenceArgs) {
+            return ((SequenceArgs) arguments).peekSequence();
+        }
+        return arguments.peek();
+    }
+
+    /**
+     * Get a scanner to parse numbers read from the given arguments with.
+     *
+     * <p>The scanner is usually owned by the arguments and returned again
+     * by later calls, so its value must be read before the next number
+     * is scanned.</p>
+     *
+     * @param arguments The arguments
+     * @return The scanner
+     */
+    public static NumberScanner getScanner(CommandArgs arguments) {
+        if (arguments instanceof SequenceArgs) {
+            return ((SequenceArgs) arguments).getScanner();
+        }
+        return new NumberScanner();
+    }
+
+    /**
+     * Read every remaining argument, joined with single spaces.
+     *
+     * <p>If the arguments appear in the input exactly as they are joined,
+     * the sequence may be a view of the input instead of a new string.</p>
+     *
+     * @param arguments The arguments
+     * @return The remaining arguments
+     * @throws MissingArgumentException Thrown if there are no remaining arguments
+     */
+    public static CharSequence remainingSequence(CommandArgs arguments) throws MissingArgumentException {
+        if (arguments instanceof SequenceArgs) {
+            return ((SequenceArgs) arguments).remainingSequence();
+        }
+
+        StringBuilder builder = new StringBuilder(arguments.next());
+        while (arguments.hasNext()) {
+            builder.append(' ').append(arguments.next());
+        }
+        return builder;
+    }
+
 }
@@ -0,0 +1,67 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+/**
+ * A view of a range of characters of another sequence.
+ *
+ * <p>Like every {@link CharSequence}, a slice is not equal to a
+ * {@link String} with the same characters. Call {@link #toString()}
+ * to compare it as a string.</p>
+ */
+final class CharSlice implements CharSequence {
+
+    private final CharSequence input;
+    private final int start;
+    private final int end;
+
+    CharSlice(CharSequence input, int start, int end) {
+        checkPositionIndexes(start, end, input.length());
+        this.input = input;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        checkElementIndex(index, end - start);
+        return input.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        checkPositionIndexes(start, end, this.end - this.start);
+        return new CharSlice(input, this.start + start, this.start + end);
+    }
+
+    @Override
+    public String toString() {
+        return Tokens.substring(input, start, end);
+    }
+
+}
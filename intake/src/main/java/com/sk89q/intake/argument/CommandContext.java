@@ -29,21 +29,21 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class CommandContext {
 
     private final String command;
-    private final List<String> parsedArgs;
-    private final List<Integer> originalArgIndices;
-    private final String[] originalArgs;
+    private final Tokens arguments;
     private final Set<Character> booleanFlags;
     private final Map<Character, String> valueFlags;
     private final Map<Character, String> allFlags;
-    private final SuggestionContext suggestionContext;
     private final Namespace namespace;
 
+    // Computed on first use if there can't be any flags
+    private volatile Parsed parsed;
+
     public static String[] split(String args) {
         return args.split(" ", -1);
     }
 
     public CommandContext(String args) throws CommandException {
-        this(args.split(" ", -1), null);
+        this(args, null);
     }
 
     public CommandContext(String[] args) throws CommandException {
@@ -51,18 +51,22 @@ public class CommandContext {
     }
 
     public CommandContext(String args, Set<Character> valueFlags) throws CommandException {
-        this(args.split(" ", -1), valueFlags);
+        this(args, valueFlags, false);
     }
 
     public CommandContext(String args, Set<Character> valueFlags, boolean allowHangingFlag)
             throws CommandException {
-        this(args.split(" ", -1), valueFlags, allowHangingFlag, new Namespace());
+        this(Tokens.split(args), valueFlags, allowHangingFlag, new Namespace());
     }
 
     public CommandContext(String[] args, Set<Character> valueFlags) throws CommandException {
         this(args, valueFlags, false, null);
     }
 
+    private CommandContext(Tokens args, Set<Character> valueFlags, boolean allowHangingFlag, Namespace namespace) throws CommandException {
+        this(args.get(0), args.tail(1), valueFlags, allowHangingFlag, namespace);
+    }
+
     /**
      * Parse the given array of arguments.
      * 
@@ -75,106 +79,98 @@ public class CommandContext {
      * @throws CommandException thrown on a parsing error
      */
     public CommandContext(String[] args, Set<Character> expectedValueFlags, boolean allowHangingFlag, Namespace namespace) throws CommandException {
+        this(args[0], Tokens.of(args).tail(1), expectedValueFlags, allowHangingFlag, namespace);
+    }
+
+    /**
+     * Parse the given tokens of arguments.
+     *
+     * <p>Empty arguments are removed from the list of arguments. Arguments
+     * are kept as spans of the tokens' input, and strings are only created
+     * for the arguments that are read.</p>
+     *
+     * @param command          the command
+     * @param arguments        the tokens of the arguments, not including the command
+     * @param expectedValueFlags       a set containing all value flags (pass null to disable value flag parsing)
+     * @param allowHangingFlag true if hanging flags are allowed
+     * @param namespace        the locals, null to create empty one
+     * @throws CommandException thrown on a parsing error
+     */
+    public CommandContext(String command, Tokens arguments, Set<Character> expectedValueFlags, boolean allowHangingFlag, Namespace namespace) throws CommandException {
+        checkNotNull(command, "command");
+        checkNotNull(arguments, "arguments");
+
         if (expectedValueFlags == null) {
             expectedValueFlags = Collections.emptySet();
         }
 
-        originalArgs = args;
-        command = args[0];
+        this.command = command;
+        this.arguments = arguments;
         this.namespace = namespace != null ? namespace : new Namespace();
-        boolean isHanging = false;
-        SuggestionContext suggestionContext = SuggestionContext.hangingValue();
-
-        // Eliminate empty args and combine multiword args first
-        List<Integer> argIndexList = new ArrayList<Integer>(args.length);
-        List<String> argList = new ArrayList<String>(args.length);
-        for (int i = 1; i < args.length; ++i) {
-            isHanging = false;
-
-            String arg = args[i];
-            if (arg.isEmpty()) {
-                isHanging = true;
-                continue;
-            }
-
-            argIndexList.add(i);
 
-            switch (arg.charAt(0)) {
-                case '\'':
-                case '"':
-                    final StringBuilder build = new StringBuilder();
-                    final char quotedChar = arg.charAt(0);
-
-                    int endIndex;
-                    for (endIndex = i; endIndex < args.length; ++endIndex) {
-                        final String arg2 = args[endIndex];
-                        if (arg2.charAt(arg2.length() - 1) == quotedChar && arg2.length() > 1) {
-                            if (endIndex != i) build.append(' ');
-                            build.append(arg2.substring(endIndex == i ? 1 : 0, arg2.length() - 1));
-                            break;
-                        } else if (endIndex == i) {
-                            build.append(arg2.substring(1));
-                        } else {
-                            build.append(' ').append(arg2);
-                        }
-                    }
-
-                    if (endIndex < args.length) {
-                        arg = build.toString();
-                        i = endIndex;
-                    }
-
-                    // In case there is an empty quoted string
-                    if (arg.isEmpty()) {
-                        continue;
-                    }
-                    // else raise exception about hanging quotes?
-            }
-            argList.add(arg);
+        // Without flags, arguments are only split when they are first needed
+        if (!mayHaveFlags(arguments)) {
+            this.booleanFlags = ImmutableSet.of();
+            this.valueFlags = ImmutableMap.of();
+            this.allFlags = ImmutableMap.of();
+            return;
         }
 
+        Spans args = Spans.parse(arguments);
+        CharSequence input = arguments.getInput();
+        SuggestionContext suggestionContext = SuggestionContext.hangingValue();
+
         // Then flags
 
-        List<Integer> originalArgIndices = Lists.newArrayListWithCapacity(argIndexList.size());
-        List<String> parsedArgs = Lists.newArrayListWithCapacity(argList.size());
+        int[] originalArgIndices = new int[args.count];
+        int[] parsedStarts = new int[args.count];
+        int[] parsedEnds = new int[args.count];
+        int parsedCount = 0;
         Map<Character, String> valueFlags = Maps.newHashMap();
         List<Character> booleanFlags = Lists.newArrayList();
 
-        for (int nextArg = 0; nextArg < argList.size(); ) {
+        for (int nextArg = 0; nextArg < args.count; ) {
             // Fetch argument
-            String arg = argList.get(nextArg++);
+            int start = args.starts[nextArg];
+            int end = args.ends[nextArg];
+            nextArg++;
             suggestionContext = SuggestionContext.hangingValue();
 
             // Not a flag?
-            if (arg.charAt(0) != '-' || arg.length() == 1 || !arg.matches("^-[a-zA-Z\\?]+$")) {
-                if (!isHanging) {
+            if (!isFlag(input, start, end)) {
+                if (!args.hanging) {
                     suggestionContext = SuggestionContext.lastValue();
                 }
 
-                originalArgIndices.add(argIndexList.get(nextArg - 1));
-                parsedArgs.add(arg);
+                originalArgIndices[parsedCount] = args.indices[nextArg - 1];
+                parsedStarts[parsedCount] = start;
+                parsedEnds[parsedCount] = end;
+                parsedCount++;
                 continue;
             }
 
             // Handle flag parsing terminator --
-            if (arg.equals("--")) {
-                while (nextArg < argList.size()) {
-                    originalArgIndices.add(argIndexList.get(nextArg));
-                    parsedArgs.add(argList.get(nextArg++));
+            if (end - start == 2 && input.charAt(start + 1) == '-') {
+                while (nextArg < args.count) {
+                    originalArgIndices[parsedCount] = args.indices[nextArg];
+                    parsedStarts[parsedCount] = args.starts[nextArg];
+                    parsedEnds[parsedCount] = args.ends[nextArg];
+                    parsedCount++;
+                    nextArg++;
                 }
                 break;
             }
 
             // Go through the flag characters
-            for (int i = 1; i < arg.length(); ++i) {
-                char flagName = arg.charAt(i);
+            for (int i = start + 1; i < end; ++i) {
+                char flagName = input.charAt(i);
 
                 if (expectedValueFlags.contains(flagName)) {
                     if (valueFlags.containsKey(flagName)) {
                         throw new CommandException("Value flag '" + flagName + "' already given");
                     }
 
-                    if (nextArg >= argList.size()) {
+                    if (nextArg >= args.count) {
                         if (allowHangingFlag) {
                             suggestionContext = SuggestionContext.flag(flagName);
                             break;
@@ -184,8 +180,9 @@ public class CommandContext {
                     }
 
                     // If it is a value flag, read another argument and add it
-                    valueFlags.put(flagName, argList.get(nextArg++));
-                    if (!isHanging) {
+                    valueFlags.put(flagName, Tokens.substring(input, args.starts[nextArg], args.ends[nextArg]));
+                    nextArg++;
+                    if (!args.hanging) {
                         suggestionContext = SuggestionContext.flag(flagName);
                     }
                 } else {
@@ -200,16 +197,80 @@ public class CommandContext {
             allFlagsBuilder.put(flag, "true");
         }
 
-        this.parsedArgs = ImmutableList.copyOf(parsedArgs);
-        this.originalArgIndices = ImmutableList.copyOf(originalArgIndices);
+        this.parsed = new Parsed(parsedCount, parsedStarts, parsedEnds, originalArgIndices, suggestionContext);
         this.booleanFlags = ImmutableSet.copyOf(booleanFlags);
         this.valueFlags = ImmutableMap.copyOf(valueFlags);
         this.allFlags = allFlagsBuilder.build();
-        this.suggestionContext = suggestionContext;
+    }
+
+    /**
+     * Test whether any argument could be a group of flags once quoted
+     * arguments have been combined.
+     *
+     * @param arguments The tokens of the arguments
+     * @return Whether there may be flags
+     */
+    private static boolean mayHaveFlags(Tokens arguments) {
+        CharSequence input = arguments.getInput();
+        for (int i = 0; i < arguments.size(); i++) {
+            int start = arguments.start(i);
+            int end = arguments.end(i);
+            if (end - start >= 2) {
+                char c = input.charAt(start);
+                if (c == '-' || ((c == '"' || c == '\'') && input.charAt(start + 1) == '-')) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Split the arguments when they were not split by the constructor,
+     * which is when there are no flags and every argument is positional.
+     *
+     * <p>Threads that race to split the arguments each get an equal
+     * result, and one of them is kept.</p>
+     *
+     * @return The parsed arguments
+     */
+    private Parsed parse() {
+        Parsed parsed = this.parsed;
+        if (parsed == null) {
+            Spans args = Spans.parse(arguments);
+            SuggestionContext suggestionContext = args.count > 0 && !args.hanging ? SuggestionContext.lastValue() : SuggestionContext.hangingValue();
+            parsed = new Parsed(args.count, args.starts, args.ends, args.indices, suggestionContext);
+            this.parsed = parsed;
+        }
+        return parsed;
+    }
+
+    /**
+     * Test whether the given characters are a group of flags, which is
+     * a hyphen followed by one or more letters or question marks.
+     *
+     * @param input The input
+     * @param start The index of the first character
+     * @param end The index after the last character
+     * @return Whether the characters are flags
+     */
+    private static boolean isFlag(CharSequence input, int start, int end) {
+        if (end - start < 2 || input.charAt(start) != '-') {
+            return false;
+        }
+
+        for (int i = start + 1; i < end; i++) {
+            char c = input.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '?')) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     public SuggestionContext getSuggestionContext() {
-        return suggestionContext;
+        return parse().suggestionContext;
     }
 
     public String getCommand() {
@@ -221,71 +282,159 @@ public class CommandContext {
     }
 
     public String getString(int index) {
-        return parsedArgs.get(index);
+        Parsed parsed = checkParsedIndex(index);
+        // Strings are immutable, so a racing thread at worst creates its own
+        String arg = parsed.args[index];
+        if (arg == null) {
+            arg = Tokens.substring(arguments.getInput(), parsed.starts[index], parsed.ends[index]);
+            parsed.args[index] = arg;
+        }
+        return arg;
     }
 
     public String getString(int index, String def) {
-        return index < parsedArgs.size() ? parsedArgs.get(index) : def;
+        return index < parse().count ? getString(index) : def;
     }
 
     public String getJoinedStrings(int initialIndex) {
-        initialIndex = originalArgIndices.get(initialIndex);
-        StringBuilder buffer = new StringBuilder(originalArgs[initialIndex]);
-        for (int i = initialIndex + 1; i < originalArgs.length; ++i) {
-            buffer.append(" ").append(originalArgs[i]);
-        }
-        return buffer.toString();
+        Parsed parsed = checkParsedIndex(initialIndex);
+        int token = parsed.indices[initialIndex] - 1;
+        return Tokens.substring(arguments.getInput(), arguments.start(token), arguments.end(arguments.size() - 1));
     }
 
     public String getRemainingString(int start) {
-        return getString(start, parsedArgs.size() - 1);
+        return getRemainingSequence(start).toString();
     }
 
     public String getString(int start, int end) {
-        StringBuilder buffer = new StringBuilder(parsedArgs.get(start));
+        return getSequence(start, end).toString();
+    }
+
+    /**
+     * Get a parsed argument as a sequence of characters, which is a view
+     * of the input unless the argument has already been read as a string.
+     *
+     * @param index The index of the argument
+     * @return The argument
+     */
+    CharSequence getSequence(int index) {
+        Parsed parsed = checkParsedIndex(index);
+        String arg = parsed.args[index];
+        return arg != null ? arg : new CharSlice(arguments.getInput(), parsed.starts[index], parsed.ends[index]);
+    }
+
+    /**
+     * Get the parsed arguments from the given index to the end, joined
+     * with single spaces.
+     *
+     * @param start The index of the first argument
+     * @return The arguments
+     * @see #getSequence(int, int)
+     */
+    CharSequence getRemainingSequence(int start) {
+        return getSequence(start, parse().count - 1);
+    }
+
+    /**
+     * Get the parsed arguments in the given range, joined with single spaces.
+     *
+     * <p>If the arguments are separated by single spaces in the input, the
+     * result is a view of the input.</p>
+     *
+     * @param start The index of the first argument
+     * @param end The index of the last argument
+     * @return The arguments
+     */
+    CharSequence getSequence(int start, int end) {
+        Parsed parsed = checkParsedIndex(start);
+        boolean contiguous = true;
         for (int i = start + 1; i < end + 1; ++i) {
-            buffer.append(" ").append(parsedArgs.get(i));
+            checkParsedIndex(i);
+            if (parsed.starts[i] != parsed.ends[i - 1] + 1) {
+                contiguous = false;
+            }
+        }
+
+        if (end <= start) {
+            return getSequence(start);
         }
-        return buffer.toString();
+
+        CharSequence input = arguments.getInput();
+        if (contiguous) {
+            return new CharSlice(input, parsed.starts[start], parsed.ends[end]);
+        }
+
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(input, parsed.starts[start], parsed.ends[start]);
+        for (int i = start + 1; i < end + 1; ++i) {
+            buffer.append(" ").append(input, parsed.starts[i], parsed.ends[i]);
+        }
+        return buffer;
+    }
+
+    private Parsed checkParsedIndex(int index) {
+        Parsed parsed = parse();
+        if (index < 0 || index >= parsed.count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + parsed.count);
+        }
+        return parsed;
+    }
+
+    /**
+     * Get one of the original arguments, where the command is at index 0.
+     *
+     * @param index The index
+     * @return The argument
+     */
+    private String getOriginalArg(int index) {
+        return index == 0 ? command : arguments.get(index - 1);
     }
 
     public int getInteger(int index) throws NumberFormatException {
-        return Integer.parseInt(parsedArgs.get(index));
+        return Integer.parseInt(getString(index));
     }
 
     public int getInteger(int index, int def) throws NumberFormatException {
-        return index < parsedArgs.size() ? Integer.parseInt(parsedArgs.get(index)) : def;
+        return index < parse().count ? Integer.parseInt(getString(index)) : def;
     }
 
     public double getDouble(int index) throws NumberFormatException {
-        return Double.parseDouble(parsedArgs.get(index));
+        return Double.parseDouble(getString(index));
     }
 
     public double getDouble(int index, double def) throws NumberFormatException {
-        return index < parsedArgs.size() ? Double.parseDouble(parsedArgs.get(index)) : def;
+        return index < parse().count ? Double.parseDouble(getString(index)) : def;
     }
 
     public String[] getSlice(int index) {
-        String[] slice = new String[originalArgs.length - index];
-        System.arraycopy(originalArgs, index, slice, 0, originalArgs.length - index);
-        return slice;
+        return getPaddedSlice(index, 0);
     }
 
     public String[] getPaddedSlice(int index, int padding) {
-        String[] slice = new String[originalArgs.length - index + padding];
-        System.arraycopy(originalArgs, index, slice, padding, originalArgs.length - index);
+        int length = arguments.size() + 1;
+        String[] slice = new String[length - index + padding];
+        if (index < 0) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        for (int i = index; i < length; i++) {
+            slice[i - index + padding] = getOriginalArg(i);
+        }
         return slice;
     }
 
     public String[] getParsedSlice(int index) {
-        String[] slice = new String[parsedArgs.size() - index];
-        System.arraycopy(parsedArgs.toArray(new String[parsedArgs.size()]), index, slice, 0, parsedArgs.size() - index);
-        return slice;
+        return getParsedPaddedSlice(index, 0);
     }
 
     public String[] getParsedPaddedSlice(int index, int padding) {
-        String[] slice = new String[parsedArgs.size() - index + padding];
-        System.arraycopy(parsedArgs.toArray(new String[parsedArgs.size()]), index, slice, padding, parsedArgs.size() - index);
+        int count = parse().count;
+        String[] slice = new String[count - index + padding];
+        if (index < 0) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        for (int i = index; i < count; i++) {
+            slice[i - index + padding] = getString(i);
+        }
         return slice;
     }
 
@@ -345,13 +494,127 @@ public class CommandContext {
     }
 
     public int argsLength() {
-        return parsedArgs.size();
+        return parse().count;
     }
 
     public Namespace getNamespace() {
         return namespace;
     }
 
+    /**
+     * The positional arguments, as spans of the input, which are published
+     * together so that a context can be shared between threads.
+     */
+    private static final class Parsed {
+        private final int count;
+        private final int[] starts;
+        private final int[] ends;
+        private final String[] args;
+        private final int[] indices;
+        private final SuggestionContext suggestionContext;
+
+        private Parsed(int count, int[] starts, int[] ends, int[] indices, SuggestionContext suggestionContext) {
+            this.count = count;
+            this.starts = starts;
+            this.ends = ends;
+            this.args = new String[count];
+            this.indices = indices;
+            this.suggestionContext = suggestionContext;
+        }
+    }
+
+    /**
+     * The arguments with empty arguments removed and quoted arguments
+     * combined, as spans of the input.
+     */
+    private static final class Spans {
+        private final int[] indices;
+        private final int[] starts;
+        private final int[] ends;
+        private final int count;
+        private final boolean hanging;
+
+        private Spans(int[] indices, int[] starts, int[] ends, int count, boolean hanging) {
+            this.indices = indices;
+            this.starts = starts;
+            this.ends = ends;
+            this.count = count;
+            this.hanging = hanging;
+        }
+
+        static Spans parse(Tokens arguments) {
+            CharSequence input = arguments.getInput();
+            int tokenCount = arguments.size();
+            boolean isHanging = false;
+
+            // Eliminate empty args and combine multiword args first
+            int[] argIndices = new int[tokenCount];
+            int argIndexCount = 0;
+            int[] argStarts = new int[tokenCount];
+            int[] argEnds = new int[tokenCount];
+            int argCount = 0;
+            int unclosedDouble = tokenCount;
+            int unclosedSingle = tokenCount;
+            for (int i = 0; i < tokenCount; ++i) {
+                isHanging = false;
+
+                int start = arguments.start(i);
+                int end = arguments.end(i);
+                if (start == end) {
+                    isHanging = true;
+                    continue;
+                }
+
+                // Indices are of the original arguments, where the command is at 0
+                argIndices[argIndexCount++] = i + 1;
+
+                switch (input.charAt(start)) {
+                    case '\'':
+                    case '"':
+                        final char quotedChar = input.charAt(start);
+                        final boolean isDouble = quotedChar == '"';
+
+                        // Once a search fails, no later quote of the same kind
+                        // can be closed either, so searches are never repeated
+                        int endIndex = tokenCount;
+                        if (i < (isDouble ? unclosedDouble : unclosedSingle)) {
+                            for (endIndex = i; endIndex < tokenCount; ++endIndex) {
+                                int end2 = arguments.end(endIndex);
+                                if (end2 - arguments.start(endIndex) > 1 && input.charAt(end2 - 1) == quotedChar) {
+                                    break;
+                                }
+                            }
+                            if (endIndex == tokenCount) {
+                                if (isDouble) {
+                                    unclosedDouble = i;
+                                } else {
+                                    unclosedSingle = i;
+                                }
+                            }
+                        }
+
+                        // The quoted argument is every token in between, minus the quotes
+                        if (endIndex < tokenCount) {
+                            start = start + 1;
+                            end = arguments.end(endIndex) - 1;
+                            i = endIndex;
+                        }
+
+                        // In case there is an empty quoted string
+                        if (start == end) {
+                            continue;
+                        }
+                        // else raise exception about hanging quotes?
+                }
+                argStarts[argCount] = start;
+                argEnds[argCount] = end;
+                argCount++;
+            }
+
+            return new Spans(argIndices, argStarts, argEnds, argCount, isHanging);
+        }
+    }
+
     public static class Builder {
 
         private String[] arguments = new String[0];
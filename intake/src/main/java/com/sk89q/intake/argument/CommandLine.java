@@ -0,0 +1,238 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.CommandLineCallable;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A line of input that has been split into tokens once, along with a
+ * cursor that marks how many tokens have been consumed while routing
+ * the line through nested commands.
+ *
+ * <p>Tokens are separated by single spaces in the same way as
+ * {@link CommandContext#split(String)}, so empty tokens are kept. The
+ * {@link Tokens} are shared between a line and the lines returned by
+ * {@link #advance()}, so descending a level does not copy the input.</p>
+ *
+ * @see CommandLineCallable
+ */
+public final class CommandLine {
+
+    private final String line;
+    private final Tokens tokens;
+    private final List<String> parentCommands;
+    private final int position;
+
+    private CommandLine(String line, Tokens tokens, List<String> parentCommands, int position) {
+        this.line = line;
+        this.tokens = tokens;
+        this.parentCommands = parentCommands;
+        this.position = position;
+    }
+
+    /**
+     * Tokenize the given input.
+     *
+     * @param arguments The input
+     * @param parentCommands The list of parent commands that came before the input
+     * @return A new command line with no tokens consumed
+     */
+    public static CommandLine of(String arguments, List<String> parentCommands) {
+        checkNotNull(arguments, "arguments");
+        checkNotNull(parentCommands, "parentCommands");
+        return new CommandLine(arguments, Tokens.split(arguments), ImmutableList.copyOf(parentCommands), 0);
+    }
+
+    /**
+     * Get the complete input, including tokens that have been consumed.
+     *
+     * @return The input
+     */
+    public String getLine() {
+        return line;
+    }
+
+    /**
+     * Get the number of tokens on the line, including consumed tokens.
+     *
+     * @return The number of tokens
+     */
+    public int size() {
+        return tokens.size();
+    }
+
+    /**
+     * Get the index of the next token that has not been consumed.
+     *
+     * @return The position of the cursor
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Test whether there are tokens that have not been consumed.
+     *
+     * @return Whether there are remaining tokens
+     */
+    public boolean hasNext() {
+        return position < tokens.size();
+    }
+
+    /**
+     * Get the index in {@link #getLine()} of the first character of a token.
+     *
+     * @param index The index of the token
+     * @return The start of the token
+     */
+    public int start(int index) {
+        return tokens.start(index);
+    }
+
+    /**
+     * Get the index in {@link #getLine()} after the last character of a token.
+     *
+     * @param index The index of the token
+     * @return The end of the token
+     */
+    public int end(int index) {
+        return tokens.end(index);
+    }
+
+    /**
+     * Get a token as a string.
+     *
+     * @param index The index of the token
+     * @return The token
+     */
+    public String getToken(int index) {
+        return tokens.get(index);
+    }
+
+    /**
+     * Return a line that shares this line's tokens with the token at the
+     * cursor marked as consumed.
+     *
+     * @return The new line
+     * @throws IllegalStateException Thrown if there are no remaining tokens
+     */
+    public CommandLine advance() {
+        if (!hasNext()) {
+            throw new IllegalStateException("No tokens remain on the line");
+        }
+        return new CommandLine(line, tokens, parentCommands, position + 1);
+    }
+
+    /**
+     * Get the input that has not been consumed, which is what a command
+     * would receive as its arguments.
+     *
+     * @return The remaining input, which may be an empty string
+     */
+    public String getRemaining() {
+        return hasNext() ? line.substring(tokens.start(position)) : "";
+    }
+
+    /**
+     * Get the list of parent commands, which consists of the parent commands
+     * that the line was created with followed by every consumed token.
+     *
+     * @return The list of parent commands
+     */
+    public List<String> getParentCommands() {
+        if (position == 0) {
+            return parentCommands;
+        }
+
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                checkElementIndex(index, size());
+                int base = parentCommands.size();
+                return index < base ? parentCommands.get(index) : getToken(index - base);
+            }
+
+            @Override
+            public int size() {
+                return parentCommands.size() + position;
+            }
+        };
+    }
+
+    /**
+     * Get the name that the command receiving the remaining tokens was
+     * called with, which is the most recent parent command, or {@code _}
+     * if there is none.
+     *
+     * @return The name of the command
+     */
+    public String getCommand() {
+        if (position > 0) {
+            return getToken(position - 1);
+        } else if (!parentCommands.isEmpty()) {
+            return parentCommands.get(parentCommands.size() - 1);
+        } else {
+            return "_";
+        }
+    }
+
+    /**
+     * Get the tokens that have not been consumed, or a single empty token
+     * if every token has been consumed.
+     *
+     * @return The remaining tokens
+     */
+    public Tokens getRemainingTokens() {
+        return hasNext() ? tokens.tail(position) : Tokens.split("");
+    }
+
+    /**
+     * Get the arguments for a {@link CommandContext}, where the first entry
+     * is {@link #getCommand()} and the remaining entries are
+     * {@link #getRemainingTokens()}.
+     *
+     * @return An array of arguments
+     */
+    public String[] toContextArguments() {
+        Tokens remaining = getRemainingTokens();
+        String[] arguments = new String[remaining.size() + 1];
+        arguments[0] = getCommand();
+        for (int i = 0; i < remaining.size(); i++) {
+            arguments[i + 1] = remaining.get(i);
+        }
+        return arguments;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandLine{" +
+                "line='" + line + '\'' +
+                ", position=" + position +
+                '}';
+    }
+
+}
@@ -43,20 +43,44 @@ class ContextArgs extends AbstractCommandArgs {
 
     @Override
     public String next() throws MissingArgumentException {
-        try {
-            return context.getString(position++);
-        } catch (IndexOutOfBoundsException ignored) {
+        if (position >= context.argsLength()) {
             throw new MissingArgumentException();
         }
+        return context.getString(position++);
     }
 
     @Override
     public String peek() throws MissingArgumentException {
-        try {
-            return context.getString(position);
-        } catch (IndexOutOfBoundsException ignored) {
+        if (position >= context.argsLength()) {
             throw new MissingArgumentException();
         }
+        return context.getString(position);
+    }
+
+    @Override
+    public CharSequence nextSequence() throws MissingArgumentException {
+        if (position >= context.argsLength()) {
+            throw new MissingArgumentException();
+        }
+        return context.getSequence(position++);
+    }
+
+    @Override
+    public CharSequence peekSequence() throws MissingArgumentException {
+        if (position >= context.argsLength()) {
+            throw new MissingArgumentException();
+        }
+        return context.getSequence(position);
+    }
+
+    @Override
+    public CharSequence remainingSequence() throws MissingArgumentException {
+        if (position >= context.argsLength()) {
+            throw new MissingArgumentException();
+        }
+        CharSequence remaining = context.getRemainingSequence(position);
+        position = context.argsLength();
+        return remaining;
     }
 
     @Override
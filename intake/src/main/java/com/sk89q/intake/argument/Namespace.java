@@ -23,6 +23,8 @@ import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * This object holds contextual data for a command execution.
  *
@@ -31,7 +33,27 @@ import java.util.Map;
  */
 public class Namespace {
     
-    private final Map<Object, Object> locals = new HashMap<Object, Object>();
+    private final Map<Object, Object> locals;
+
+    /**
+     * Create a new, empty namespace.
+     */
+    public Namespace() {
+        this.locals = new HashMap<Object, Object>();
+    }
+
+    /**
+     * Create a namespace that starts with the values of another namespace.
+     *
+     * <p>Values that are later put into either namespace are not seen by
+     * the other, but the values themselves are shared.</p>
+     *
+     * @param namespace The namespace to copy
+     */
+    public Namespace(Namespace namespace) {
+        checkNotNull(namespace, "namespace");
+        this.locals = new HashMap<Object, Object>(namespace.locals);
+    }
 
     /**
      * Test whether the given key exists.
@@ -97,4 +119,15 @@ public class Namespace {
         return locals.put(key, value);
     }
 
+    /**
+     * Remove a contextual value.
+     *
+     * @param key The key
+     * @return The value that was removed, or null if there was no value
+     */
+    @Nullable
+    public Object remove(Object key) {
+        return locals.remove(key);
+    }
+
 }
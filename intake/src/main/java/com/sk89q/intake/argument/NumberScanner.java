@@ -0,0 +1,450 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+/**
+ * Parses numbers directly from a range of characters.
+ *
+ * <p>Unlike {@link Integer#parseInt(String)} and {@link Double#parseDouble(String)},
+ * no string has to be created for the input and failures are reported by
+ * returning a status code rather than throwing an exception. The parsed
+ * value is kept by the scanner until the next scan, so an instance should
+ * not be shared between threads.</p>
+ *
+ * <p>Numbers may be followed by a unit suffix, which multiplies the value,
+ * if the {@link Units} passed to the scan method allow it. A number without
+ * a suffix is never scaled.</p>
+ */
+public final class NumberScanner {
+
+    /**
+     * The input was parsed.
+     */
+    public static final int OK = 0;
+
+    /**
+     * The input was empty.
+     */
+    public static final int EMPTY = 1;
+
+    /**
+     * The input is not a number.
+     */
+    public static final int MALFORMED = 2;
+
+    /**
+     * The input is a number that does not fit in the requested type.
+     */
+    public static final int OUT_OF_RANGE = 3;
+
+    /**
+     * The input is a number followed by a suffix that is not a known unit.
+     */
+    public static final int UNKNOWN_UNIT = 4;
+
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private long longValue;
+    private double doubleValue;
+
+    /**
+     * Get the value of the last successful call to {@link #scanInt(CharSequence)}
+     * or {@link #scanLong(CharSequence)}.
+     *
+     * @return The value
+     */
+    public long getLong() {
+        return longValue;
+    }
+
+    /**
+     * Get the value of the last successful call to {@link #scanInt(CharSequence)}.
+     *
+     * @return The value
+     */
+    public int getInt() {
+        return (int) longValue;
+    }
+
+    /**
+     * Get the value of the last successful call to {@link #scanDouble(CharSequence)}.
+     *
+     * @return The value
+     */
+    public double getDouble() {
+        return doubleValue;
+    }
+
+    /**
+     * Parse the given input as an integer without a unit.
+     *
+     * @param input The input
+     * @return The status code
+     */
+    public int scanInt(CharSequence input) {
+        checkNotNull(input, "input");
+        return scanInt(input, 0, input.length(), Units.NONE);
+    }
+
+    /**
+     * Parse a range of the given input as an integer.
+     *
+     * @param input The input
+     * @param start The index of the first character, inclusive
+     * @param end The index of the last character, exclusive
+     * @param units The units that may follow the number
+     * @return The status code
+     */
+    public int scanInt(CharSequence input, int start, int end, Units units) {
+        return scanLong(input, start, end, units, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Parse the given input as a long without a unit.
+     *
+     * @param input The input
+     * @return The status code
+     */
+    public int scanLong(CharSequence input) {
+        checkNotNull(input, "input");
+        return scanLong(input, 0, input.length(), Units.NONE);
+    }
+
+    /**
+     * Parse a range of the given input as a long.
+     *
+     * @param input The input
+     * @param start The index of the first character, inclusive
+     * @param end The index of the last character, exclusive
+     * @param units The units that may follow the number
+     * @return The status code
+     */
+    public int scanLong(CharSequence input, int start, int end, Units units) {
+        return scanLong(input, start, end, units, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    private int scanLong(CharSequence input, int start, int end, Units units, long min, long max) {
+        checkNotNull(input, "input");
+        checkPositionIndexes(start, end, input.length());
+        checkNotNull(units, "units");
+
+        if (start == end) {
+            return EMPTY;
+        }
+
+        int i = start;
+        boolean negative = false;
+        char c = input.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+
+        // Accumulate negatively so that Long.MIN_VALUE can be parsed
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        int digitsStart = i;
+        for (; i < end; i++) {
+            int digit = input.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (value < limit / 10) {
+                return OUT_OF_RANGE;
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                return OUT_OF_RANGE;
+            }
+            value -= digit;
+        }
+
+        if (i == digitsStart) {
+            return MALFORMED;
+        }
+
+        if (!negative) {
+            value = -value;
+        }
+
+        if (i < end) {
+            long multiplier = units.getMultiplier(input, i, end);
+            if (multiplier == 0) {
+                return isNumeric(input.charAt(i)) ? MALFORMED : UNKNOWN_UNIT;
+            }
+            if (value > Long.MAX_VALUE / multiplier || value < Long.MIN_VALUE / multiplier) {
+                return OUT_OF_RANGE;
+            }
+            value *= multiplier;
+        }
+
+        if (value < min || value > max) {
+            return OUT_OF_RANGE;
+        }
+
+        longValue = value;
+        return OK;
+    }
+
+    /**
+     * Parse the given input as a double without a unit.
+     *
+     * @param input The input
+     * @return The status code
+     */
+    public int scanDouble(CharSequence input) {
+        checkNotNull(input, "input");
+        return scanDouble(input, 0, input.length(), Units.NONE);
+    }
+
+    /**
+     * Parse a range of the given input as a double.
+     *
+     * <p>Decimal numbers with an optional exponent are accepted, but the
+     * special values {@code NaN} and {@code Infinity}, hexadecimal numbers
+     * and type suffixes that are accepted by {@link Double#parseDouble(String)}
+     * are not.</p>
+     *
+     * @param input The input
+     * @param start The index of the first character, inclusive
+     * @param end The index of the last character, exclusive
+     * @param units The units that may follow the number
+     * @return The status code
+     */
+    public int scanDouble(CharSequence input, int start, int end, Units units) {
+        checkNotNull(input, "input");
+        checkPositionIndexes(start, end, input.length());
+        checkNotNull(units, "units");
+
+        if (start == end) {
+            return EMPTY;
+        }
+
+        int i = start;
+        boolean negative = false;
+        char c = input.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean exact = true;
+        boolean sawDigit = false;
+
+        for (; i < end; i++) {
+            int digit = input.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            sawDigit = true;
+            if (mantissa == 0 && digit == 0) {
+                continue;
+            }
+            if (digits < MAX_MANTISSA_DIGITS) {
+                mantissa = mantissa * 10 + digit;
+                digits++;
+            } else {
+                exponent++;
+                exact &= digit == 0;
+            }
+        }
+
+        if (i < end && input.charAt(i) == '.') {
+            for (i++; i < end; i++) {
+                int digit = input.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                sawDigit = true;
+                if (mantissa == 0 && digit == 0) {
+                    exponent--;
+                } else if (digits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + digit;
+                    digits++;
+                    exponent--;
+                } else {
+                    exact &= digit == 0;
+                }
+            }
+        }
+
+        if (!sawDigit) {
+            return MALFORMED;
+        }
+
+        if (i < end && (input.charAt(i) == 'e' || input.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+                negativeExponent = input.charAt(i) == '-';
+                i++;
+            }
+
+            int exponentStart = i;
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                int digit = input.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                // Anything this large is zero or infinite anyway
+                if (explicitExponent < 100000) {
+                    explicitExponent = explicitExponent * 10 + digit;
+                }
+            }
+
+            if (i == exponentStart) {
+                return MALFORMED;
+            }
+
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        int numberEnd = i;
+        long multiplier = 1;
+        if (i < end) {
+            multiplier = units.getMultiplier(input, i, end);
+            if (multiplier == 0) {
+                return isNumeric(input.charAt(i)) ? MALFORMED : UNKNOWN_UNIT;
+            }
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0;
+        } else if (exact && digits <= MAX_EXACT_DIGITS && exponent >= -22 && exponent <= 22) {
+            // Both operands are exact, so the single operation is correctly rounded
+            value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            // The grammar has already been checked, so this can't fail
+            value = Math.abs(Double.parseDouble(input.subSequence(start, numberEnd).toString()));
+        }
+
+        value *= multiplier;
+        if (Double.isInfinite(value)) {
+            return OUT_OF_RANGE;
+        }
+
+        doubleValue = negative ? -value : value;
+        return OK;
+    }
+
+    private static boolean isNumeric(char c) {
+        return (c >= '0' && c <= '9') || c == '.' || c == '-' || c == '+';
+    }
+
+    private static boolean regionMatches(CharSequence input, int start, int end, String suffix) {
+        if (end - start != suffix.length()) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (Character.toLowerCase(input.charAt(start + i)) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The unit suffixes that may follow a number.
+     */
+    public enum Units {
+
+        /**
+         * No suffixes are accepted.
+         */
+        NONE {
+            @Override
+            long getMultiplier(CharSequence input, int start, int end) {
+                return 0;
+            }
+        },
+
+        /**
+         * The metric prefixes {@code k} (or {@code K}), {@code M}, {@code G}
+         * and {@code T}, such as {@code 5k} for 5,000.
+         */
+        METRIC {
+            @Override
+            long getMultiplier(CharSequence input, int start, int end) {
+                if (end - start != 1) {
+                    return 0;
+                }
+                switch (input.charAt(start)) {
+                    case 'k':
+                    case 'K': return 1000L;
+                    case 'M': return 1000000L;
+                    case 'G': return 1000000000L;
+                    case 'T': return 1000000000000L;
+                    default: return 0;
+                }
+            }
+        },
+
+        /**
+         * The durations {@code ms}, {@code s}, {@code m}, {@code h},
+         * {@code d} and {@code w}, in any case, with the value given in
+         * milliseconds, such as {@code 30s} for 30,000.
+         */
+        DURATION {
+            @Override
+            long getMultiplier(CharSequence input, int start, int end) {
+                if (end - start == 1) {
+                    switch (Character.toLowerCase(input.charAt(start))) {
+                        case 's': return 1000L;
+                        case 'm': return 60L * 1000;
+                        case 'h': return 60L * 60 * 1000;
+                        case 'd': return 24L * 60 * 60 * 1000;
+                        case 'w': return 7L * 24 * 60 * 60 * 1000;
+                        default: return 0;
+                    }
+                } else if (regionMatches(input, start, end, "ms")) {
+                    return 1;
+                } else {
+                    return 0;
+                }
+            }
+        };
+
+        /**
+         * Get the value that a number followed by the given suffix is
+         * multiplied by.
+         *
+         * @param input The input
+         * @param start The index of the first character of the suffix, inclusive
+         * @param end The index of the last character of the suffix, exclusive
+         * @return The multiplier, or 0 if the suffix is not known
+         */
+        abstract long getMultiplier(CharSequence input, int start, int end);
+
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.sk89q.intake.argument;
+
+/**
+ * Implemented by {@link CommandArgs} that can return arguments as
+ * sequences of characters without copying them, and that keep a
+ * {@link NumberScanner} to parse them with.
+ *
+ * <p>This is not part of {@link CommandArgs} so that implementations
+ * outside of this package keep working. Callers go through the methods
+ * on {@link Arguments}, which fall back to the string methods.</p>
+ */
+interface SequenceArgs {
+
+    /**
+     * Read the next argument as a sequence of characters.
+     *
+     * @return The next argument
+     * @throws MissingArgumentException Thrown if there are no remaining arguments
+     * @see Arguments#nextSequence(CommandArgs)
+     */
+    CharSequence nextSequence() throws MissingArgumentException;
+
+    /**
+     * Return the next argument as a sequence of characters without moving
+     * the pointer.
+     *
+     * @return The next argument
+     * @throws MissingArgumentException Thrown if there are no remaining arguments
+     * @see Arguments#peekSequence(CommandArgs)
+     */
+    CharSequence peekSequence() throws MissingArgumentException;
+
+    /**
+     * Read every remaining argument, joined with single spaces.
+     *
+     * @return The remaining arguments
+     * @throws MissingArgumentException Thrown if there are no remaining arguments
+     * @see Arguments#remainingSequence(CommandArgs)
+     */
+    CharSequence remainingSequence() throws MissingArgumentException;
+
+    /**
+     * Get the scanner that is used for every number read from these
+     * arguments.
+     *
+     * @return The scanner
+     * @see Arguments#getScanner(CommandArgs)
+     */
+    NumberScanner getScanner();
+
+}
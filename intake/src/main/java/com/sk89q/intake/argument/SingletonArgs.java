@@ -0,0 +1,93 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Arguments that consist of a single argument, which avoids the copies
+ * made by {@link StringListArgs}.
+ */
+class SingletonArgs extends AbstractCommandArgs {
+
+    private final String argument;
+    private final Map<Character, String> flags;
+    private final Namespace namespace;
+    private boolean consumed;
+
+    SingletonArgs(String argument, Map<Character, String> flags, Namespace namespace) {
+        checkNotNull(argument, "argument");
+        checkNotNull(flags, "flags");
+        checkNotNull(namespace, "namespace");
+        this.argument = argument;
+        this.flags = flags;
+        this.namespace = namespace;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !consumed;
+    }
+
+    @Override
+    public String next() throws MissingArgumentException {
+        if (consumed) {
+            throw new MissingArgumentException();
+        }
+        consumed = true;
+        return argument;
+    }
+
+    @Override
+    public String peek() throws MissingArgumentException {
+        if (consumed) {
+            throw new MissingArgumentException();
+        }
+        return argument;
+    }
+
+    @Override
+    public int position() {
+        return consumed ? 1 : 0;
+    }
+
+    @Override
+    public int size() {
+        return 1;
+    }
+
+    @Override
+    public void markConsumed() {
+        consumed = true;
+    }
+
+    @Override
+    public Map<Character, String> getFlags() {
+        return flags;
+    }
+
+    @Override
+    public Namespace getNamespace() {
+        return namespace;
+    }
+
+}
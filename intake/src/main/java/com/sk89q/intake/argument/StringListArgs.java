@@ -53,20 +53,18 @@ class StringListArgs extends AbstractCommandArgs {
 
     @Override
     public String next() throws MissingArgumentException {
-        try {
-            return arguments.get(position++);
-        } catch (IndexOutOfBoundsException ignored) {
+        if (position >= arguments.size()) {
             throw new MissingArgumentException();
         }
+        return arguments.get(position++);
     }
 
     @Override
     public String peek() throws MissingArgumentException {
-        try {
-            return arguments.get(position);
-        } catch (IndexOutOfBoundsException ignored) {
+        if (position >= arguments.size()) {
             throw new MissingArgumentException();
         }
+        return arguments.get(position);
     }
 
     @Override
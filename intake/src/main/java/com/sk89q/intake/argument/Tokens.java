@@ -0,0 +1,265 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndex;
+
+/**
+ * Input that has been split into tokens at every space, where each token
+ * is stored as a span of the original characters.
+ *
+ * <p>Tokens are split in the same way as {@link CommandContext#split(String)},
+ * so empty tokens are kept, but the input is scanned once and no strings
+ * are created until {@link #get(int)} is called for a token. Strings that
+ * have been created are kept and shared with the views returned by
+ * {@link #tail(int)}.</p>
+ */
+public final class Tokens {
+
+    /**
+     * The length of input at and above which spaces may be found in bulk.
+     */
+    static final int BULK_SCAN_THRESHOLD = 256;
+
+    /**
+     * The number of leading characters that are sampled to estimate how
+     * far apart spaces are.
+     */
+    private static final int DENSITY_SAMPLE = 128;
+
+    /**
+     * The average distance between spaces below which searching for each
+     * space costs more than reading every character.
+     */
+    private static final int MIN_BULK_SPACING = 24;
+
+    private final CharSequence input;
+    private final int[] starts;
+    private final String[] strings;
+    private final int offset;
+    private final int count;
+
+    private Tokens(CharSequence input, int[] starts, String[] strings, int offset, int count) {
+        this.input = input;
+        this.starts = starts;
+        this.strings = strings;
+        this.offset = offset;
+        this.count = count;
+    }
+
+    /**
+     * Split the given input at every space.
+     *
+     * @param input The input
+     * @return The tokens, of which there is at least one
+     */
+    public static Tokens split(CharSequence input) {
+        checkNotNull(input, "input");
+        int length = input.length();
+
+        if (length >= BULK_SCAN_THRESHOLD && input instanceof String && isSparse((String) input)) {
+            return splitBulk((String) input);
+        }
+
+        int count = 1;
+        for (int i = 0; i < length; i++) {
+            if (input.charAt(i) == ' ') {
+                count++;
+            }
+        }
+
+        int[] starts = new int[count];
+        int token = 1;
+        for (int i = 0; i < length; i++) {
+            if (input.charAt(i) == ' ') {
+                starts[token++] = i + 1;
+            }
+        }
+
+        return new Tokens(input, starts, new String[count], 0, count);
+    }
+
+    private static boolean isSparse(String input) {
+        int spaces = 0;
+        for (int i = 0; i < DENSITY_SAMPLE; i++) {
+            if (input.charAt(i) == ' ') {
+                spaces++;
+            }
+        }
+        return spaces * MIN_BULK_SPACING < DENSITY_SAMPLE;
+    }
+
+    /**
+     * Split long input with {@link String#indexOf(int, int)}, which the JVM
+     * compiles to a vectorized search, rather than reading one character
+     * at a time through {@link CharSequence#charAt(int)}. Each search has
+     * a fixed cost, so this is only faster when spaces are far apart, such
+     * as in pasted text or encoded data.
+     *
+     * @param input The input
+     * @return The tokens
+     */
+    private static Tokens splitBulk(String input) {
+        int count = 1;
+        for (int i = input.indexOf(' '); i != -1; i = input.indexOf(' ', i + 1)) {
+            count++;
+        }
+
+        int[] starts = new int[count];
+        int token = 1;
+        for (int i = input.indexOf(' '); i != -1; i = input.indexOf(' ', i + 1)) {
+            starts[token++] = i + 1;
+        }
+
+        return new Tokens(input, starts, new String[count], 0, count);
+    }
+
+    /**
+     * Create tokens from strings that have already been split.
+     *
+     * <p>The strings are joined with spaces to form the input, so the
+     * input of a span of several tokens is the same as the strings joined
+     * with spaces, even if a string itself contains a space.</p>
+     *
+     * @param tokens The tokens
+     * @return The tokens
+     */
+    public static Tokens of(String... tokens) {
+        checkNotNull(tokens, "tokens");
+        int[] starts = new int[tokens.length];
+        String[] strings = new String[tokens.length];
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < tokens.length; i++) {
+            checkNotNull(tokens[i], "tokens[" + i + "]");
+            if (i > 0) {
+                builder.append(' ');
+            }
+            starts[i] = builder.length();
+            strings[i] = tokens[i];
+            builder.append(tokens[i]);
+        }
+
+        return new Tokens(builder.toString(), starts, strings, 0, tokens.length);
+    }
+
+    /**
+     * Get the characters that the spans of the tokens refer to.
+     *
+     * @return The input
+     */
+    public CharSequence getInput() {
+        return input;
+    }
+
+    /**
+     * Get the number of tokens.
+     *
+     * @return The number of tokens
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Get the index in {@link #getInput()} of the first character of a token.
+     *
+     * @param index The index of the token
+     * @return The start of the token
+     */
+    public int start(int index) {
+        checkElementIndex(index, count);
+        return starts[offset + index];
+    }
+
+    /**
+     * Get the index in {@link #getInput()} after the last character of a token.
+     *
+     * @param index The index of the token
+     * @return The end of the token
+     */
+    public int end(int index) {
+        checkElementIndex(index, count);
+        int next = offset + index + 1;
+        return next < starts.length ? starts[next] - 1 : input.length();
+    }
+
+    /**
+     * Get the length of a token.
+     *
+     * @param index The index of the token
+     * @return The length
+     */
+    public int length(int index) {
+        return end(index) - start(index);
+    }
+
+    /**
+     * Get a token as a string.
+     *
+     * @param index The index of the token
+     * @return The token
+     */
+    public String get(int index) {
+        checkElementIndex(index, count);
+        String token = strings[offset + index];
+        if (token == null) {
+            token = substring(input, start(index), end(index));
+            strings[offset + index] = token;
+        }
+        return token;
+    }
+
+    /**
+     * Get the tokens starting at the given index, sharing the spans
+     * and strings of these tokens.
+     *
+     * @param from The index of the first token to include
+     * @return The tokens
+     */
+    public Tokens tail(int from) {
+        checkPositionIndex(from, count);
+        return new Tokens(input, starts, strings, offset + from, count - from);
+    }
+
+    /**
+     * Get a string of the given characters of the input.
+     *
+     * @param input The input
+     * @param start The index of the first character
+     * @param end The index after the last character
+     * @return The string
+     */
+    static String substring(CharSequence input, int start, int end) {
+        if (input instanceof String) {
+            return ((String) input).substring(start, end);
+        } else {
+            return input.subSequence(start, end).toString();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return count > 0 ? substring(input, start(0), end(count - 1)) : "";
+    }
+
+}
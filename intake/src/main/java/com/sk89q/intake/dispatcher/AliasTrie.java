@@ -0,0 +1,221 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.dispatcher;
+
+import com.sk89q.intake.CommandMapping;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A case-insensitive index of aliases backed by a character trie.
+ *
+ * <p>Case is folded one character at a time while walking the trie, so
+ * looking up an alias never creates a lower-cased copy of the input.
+ * The same structure answers prefix queries for suggestions.</p>
+ *
+ * <p>Instances are immutable. Adding an alias copies the nodes on the
+ * path to the alias and shares every other node with the original
+ * trie, so it costs time proportional to the length of the alias rather
+ * than the number of aliases.</p>
+ */
+final class AliasTrie {
+
+    static final AliasTrie EMPTY = new AliasTrie(Node.EMPTY);
+
+    private final Node root;
+
+    private AliasTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Fold the case of a character the same way for both registration
+     * and lookup.
+     *
+     * @param c The character
+     * @return The folded character
+     */
+    static char fold(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        } else {
+            return Character.toLowerCase(c);
+        }
+    }
+
+    /**
+     * Fold the case of an entire alias.
+     *
+     * @param alias The alias
+     * @return The folded alias
+     */
+    static String fold(String alias) {
+        for (int i = 0; i < alias.length(); i++) {
+            char c = alias.charAt(i);
+            if (fold(c) != c) {
+                char[] folded = alias.toCharArray();
+                for (int j = i; j < folded.length; j++) {
+                    folded[j] = fold(folded[j]);
+                }
+                return new String(folded);
+            }
+        }
+        return alias;
+    }
+
+    /**
+     * Create a trie that also associates the given alias with a mapping,
+     * replacing any existing association.
+     *
+     * @param alias The alias
+     * @param mapping The mapping
+     * @return The new trie
+     */
+    AliasTrie with(String alias, CommandMapping mapping) {
+        checkNotNull(alias, "alias");
+        checkNotNull(mapping, "mapping");
+        return new AliasTrie(root.with(alias, 0, mapping));
+    }
+
+    /**
+     * Get the mapping for the given alias.
+     *
+     * @param input The alias
+     * @return The mapping, or null if there is none
+     */
+    @Nullable
+    CommandMapping get(CharSequence input) {
+        return get(input, 0, input.length());
+    }
+
+    /**
+     * Get the mapping for the alias found in the given range of characters.
+     *
+     * @param input The characters to read from
+     * @param start The index of the first character of the alias
+     * @param end The index after the last character of the alias
+     * @return The mapping, or null if there is none
+     */
+    @Nullable
+    CommandMapping get(CharSequence input, int start, int end) {
+        Node node = find(input, start, end);
+        return node != null ? node.mapping : null;
+    }
+
+    /**
+     * Add every mapping that has an alias starting with the given prefix
+     * to the given collection, in alias order.
+     *
+     * @param prefix The prefix
+     * @param mappings The collection to add to
+     */
+    void collect(CharSequence prefix, Collection<CommandMapping> mappings) {
+        Node node = find(prefix, 0, prefix.length());
+        if (node != null) {
+            node.collect(mappings);
+        }
+    }
+
+    @Nullable
+    private Node find(CharSequence input, int start, int end) {
+        Node node = root;
+        for (int i = start; i < end && node != null; i++) {
+            node = node.get(fold(input.charAt(i)));
+        }
+        return node;
+    }
+
+    private static final class Node {
+        private static final Node EMPTY = new Node(new char[0], new Node[0], null);
+
+        private final char[] keys;
+        private final Node[] children;
+        @Nullable
+        private final CommandMapping mapping;
+
+        private Node(char[] keys, Node[] children, @Nullable CommandMapping mapping) {
+            this.keys = keys;
+            this.children = children;
+            this.mapping = mapping;
+        }
+
+        @Nullable
+        Node get(char c) {
+            int index = indexOf(c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node with(String alias, int position, CommandMapping mapping) {
+            if (position == alias.length()) {
+                return new Node(keys, children, mapping);
+            }
+
+            char c = fold(alias.charAt(position));
+            int index = indexOf(c);
+
+            if (index >= 0) {
+                Node[] newChildren = children.clone();
+                newChildren[index] = children[index].with(alias, position + 1, mapping);
+                return new Node(keys, newChildren, this.mapping);
+            }
+
+            int insertion = -(index + 1);
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertion);
+            System.arraycopy(children, 0, newChildren, 0, insertion);
+            System.arraycopy(keys, insertion, newKeys, insertion + 1, keys.length - insertion);
+            System.arraycopy(children, insertion, newChildren, insertion + 1, children.length - insertion);
+            newKeys[insertion] = c;
+            newChildren[insertion] = EMPTY.with(alias, position + 1, mapping);
+            return new Node(newKeys, newChildren, this.mapping);
+        }
+
+        void collect(Collection<CommandMapping> mappings) {
+            if (mapping != null) {
+                mappings.add(mapping);
+            }
+            for (Node child : children) {
+                child.collect(mappings);
+            }
+        }
+
+        private int indexOf(char c) {
+            int low = 0;
+            int high = keys.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char key = keys[mid];
+                if (key < c) {
+                    low = mid + 1;
+                } else if (key > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+}
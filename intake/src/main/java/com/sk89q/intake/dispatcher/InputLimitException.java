@@ -0,0 +1,49 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.dispatcher;
+
+import com.sk89q.intake.CommandException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Thrown when input is rejected because it exceeds the {@link InputLimits}
+ * of a dispatcher.
+ */
+public class InputLimitException extends CommandException {
+
+    private final InputLimits.Violation violation;
+
+    public InputLimitException(InputLimits.Violation violation, String message) {
+        super(message);
+        checkNotNull(violation, "violation");
+        this.violation = violation;
+    }
+
+    /**
+     * Get the limit that was exceeded.
+     *
+     * @return The violation
+     */
+    public InputLimits.Violation getViolation() {
+        return violation;
+    }
+
+}
@@ -0,0 +1,317 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.dispatcher;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Limits on the size of input that a dispatcher accepts, checked before
+ * the input is tokenized.
+ *
+ * <p>The input is checked in a single pass (two if it contains quotes)
+ * over its characters without allocating. Quotes are matched in the same
+ * way as {@link com.sk89q.intake.argument.CommandContext}: a token that
+ * starts with a quote is combined with the following tokens up to the
+ * first token that ends with the same quote, if there is one.</p>
+ *
+ * <p>The number of rejected inputs is counted for each kind of limit.
+ * Instances are thread-safe.</p>
+ */
+public final class InputLimits {
+
+    private final int maxLength;
+    private final int maxTokens;
+    private final int maxQuoteSpan;
+    private final AtomicLongArray rejections = new AtomicLongArray(Violation.values().length);
+
+    private InputLimits(Builder builder) {
+        this.maxLength = builder.maxLength;
+        this.maxTokens = builder.maxTokens;
+        this.maxQuoteSpan = builder.maxQuoteSpan;
+    }
+
+    /**
+     * Get the maximum number of characters in the input.
+     *
+     * @return The maximum length
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Get the maximum number of tokens separated by spaces in the input.
+     *
+     * @return The maximum number of tokens
+     */
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    /**
+     * Get the maximum number of characters in a quoted argument, including
+     * the quotes.
+     *
+     * @return The maximum quote span
+     */
+    public int getMaxQuoteSpan() {
+        return maxQuoteSpan;
+    }
+
+    /**
+     * Find the first limit that the given input exceeds.
+     *
+     * @param input The input
+     * @return The violation, or null if the input is within the limits
+     */
+    @Nullable
+    public Violation check(CharSequence input) {
+        checkNotNull(input, "input");
+        int length = input.length();
+
+        if (length > maxLength) {
+            return Violation.LENGTH;
+        }
+
+        int tokens = 1;
+        int lastDoubleClose = -1;
+        int lastSingleClose = -1;
+        int tokenStart = 0;
+
+        for (int i = 0; i <= length; i++) {
+            if (i < length && input.charAt(i) != ' ') {
+                continue;
+            }
+
+            if (i < length && ++tokens > maxTokens) {
+                return Violation.TOKENS;
+            }
+
+            if (i - tokenStart > 1) {
+                char last = input.charAt(i - 1);
+                if (last == '"') {
+                    lastDoubleClose = i;
+                } else if (last == '\'') {
+                    lastSingleClose = i;
+                }
+            }
+
+            tokenStart = i + 1;
+        }
+
+        if (maxQuoteSpan < length && (lastDoubleClose != -1 || lastSingleClose != -1)) {
+            return checkQuotes(input, lastDoubleClose, lastSingleClose);
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private Violation checkQuotes(CharSequence input, int lastDoubleClose, int lastSingleClose) {
+        int length = input.length();
+        int tokenStart = 0;
+        int quoteStart = -1;
+        char quote = 0;
+
+        for (int i = 0; i <= length; i++) {
+            if (i < length && input.charAt(i) != ' ') {
+                continue;
+            }
+
+            if (i > tokenStart) {
+                if (quoteStart == -1) {
+                    char first = input.charAt(tokenStart);
+                    // Quotes that are never closed are left as they are
+                    if ((first == '"' && tokenStart < lastDoubleClose) || (first == '\'' && tokenStart < lastSingleClose)) {
+                        quoteStart = tokenStart;
+                        quote = first;
+                    }
+                }
+
+                if (quoteStart != -1 && i - tokenStart > 1 && input.charAt(i - 1) == quote) {
+                    if (i - quoteStart > maxQuoteSpan) {
+                        return Violation.QUOTE_SPAN;
+                    }
+                    quoteStart = -1;
+                }
+            }
+
+            tokenStart = i + 1;
+        }
+
+        return null;
+    }
+
+    /**
+     * Check the given input and throw an exception if it exceeds a limit,
+     * counting the rejection.
+     *
+     * @param input The input
+     * @throws InputLimitException Thrown if the input exceeds a limit
+     */
+    public void enforce(CharSequence input) throws InputLimitException {
+        Violation violation = check(input);
+        if (violation != null) {
+            rejections.incrementAndGet(violation.ordinal());
+            switch (violation) {
+                case LENGTH:
+                    throw new InputLimitException(violation, "The input is too long (the limit is " + maxLength + " characters).");
+                case TOKENS:
+                    throw new InputLimitException(violation, "The input has too many arguments (the limit is " + maxTokens + ").");
+                default:
+                    throw new InputLimitException(violation, "A quoted argument is too long (the limit is " + maxQuoteSpan + " characters).");
+            }
+        }
+    }
+
+    /**
+     * Get the number of inputs that were rejected by {@link #enforce(CharSequence)}.
+     *
+     * @return The number of rejections
+     */
+    public long getRejectedCount() {
+        long total = 0;
+        for (int i = 0; i < rejections.length(); i++) {
+            total += rejections.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of inputs that were rejected by {@link #enforce(CharSequence)}
+     * for exceeding the given limit.
+     *
+     * @param violation The kind of limit
+     * @return The number of rejections
+     */
+    public long getRejectedCount(Violation violation) {
+        checkNotNull(violation, "violation");
+        return rejections.get(violation.ordinal());
+    }
+
+    /**
+     * A kind of limit that input can exceed.
+     */
+    public enum Violation {
+        /**
+         * The input has too many characters.
+         */
+        LENGTH,
+        /**
+         * The input has too many tokens.
+         */
+        TOKENS,
+        /**
+         * A quoted argument has too many characters.
+         */
+        QUOTE_SPAN
+    }
+
+    /**
+     * Builds instances of {@link InputLimits}.
+     *
+     * <p>By default, there are no limits.</p>
+     */
+    public static class Builder {
+        private int maxLength = Integer.MAX_VALUE;
+        private int maxTokens = Integer.MAX_VALUE;
+        private int maxQuoteSpan = Integer.MAX_VALUE;
+
+        /**
+         * Get the maximum number of characters in the input.
+         *
+         * @return The maximum length
+         */
+        public int getMaxLength() {
+            return maxLength;
+        }
+
+        /**
+         * Set the maximum number of characters in the input.
+         *
+         * @param maxLength The maximum length
+         * @return The builder
+         */
+        public Builder setMaxLength(int maxLength) {
+            checkArgument(maxLength >= 0, "maxLength can't be negative");
+            this.maxLength = maxLength;
+            return this;
+        }
+
+        /**
+         * Get the maximum number of tokens separated by spaces in the input.
+         *
+         * @return The maximum number of tokens
+         */
+        public int getMaxTokens() {
+            return maxTokens;
+        }
+
+        /**
+         * Set the maximum number of tokens separated by spaces in the input,
+         * including the command.
+         *
+         * @param maxTokens The maximum number of tokens
+         * @return The builder
+         */
+        public Builder setMaxTokens(int maxTokens) {
+            checkArgument(maxTokens >= 1, "maxTokens must be at least 1");
+            this.maxTokens = maxTokens;
+            return this;
+        }
+
+        /**
+         * Get the maximum number of characters in a quoted argument,
+         * including the quotes.
+         *
+         * @return The maximum quote span
+         */
+        public int getMaxQuoteSpan() {
+            return maxQuoteSpan;
+        }
+
+        /**
+         * Set the maximum number of characters in a quoted argument,
+         * including the quotes.
+         *
+         * @param maxQuoteSpan The maximum quote span
+         * @return The builder
+         */
+        public Builder setMaxQuoteSpan(int maxQuoteSpan) {
+            checkArgument(maxQuoteSpan >= 0, "maxQuoteSpan can't be negative");
+            this.maxQuoteSpan = maxQuoteSpan;
+            return this;
+        }
+
+        /**
+         * Create an instance using the configuration from this builder.
+         *
+         * @return The instance
+         */
+        public InputLimits build() {
+            return new InputLimits(this);
+        }
+    }
+
+}
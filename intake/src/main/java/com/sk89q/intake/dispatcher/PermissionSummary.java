@@ -0,0 +1,125 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.dispatcher;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.CommandMapping;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.util.auth.Authorizer;
+import com.sk89q.intake.util.auth.PermissionMemo;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The set of permissions required by any command below a dispatcher,
+ * collected from {@link com.sk89q.intake.Description#getPermissions()}.
+ *
+ * <p>A command that declares no permissions may still do its own checks,
+ * so it is asked with {@link CommandCallable#testPermission(Namespace)}
+ * instead.</p>
+ */
+final class PermissionSummary {
+
+    private final List<String> permissions;
+    private final List<CommandCallable> undeclared;
+
+    private PermissionSummary(List<String> permissions, List<CommandCallable> undeclared) {
+        this.permissions = permissions;
+        this.undeclared = undeclared;
+    }
+
+    /**
+     * Summarize the permissions of the given commands.
+     *
+     * <p>The summaries of child {@link SimpleDispatcher}s are reused
+     * rather than walking their children again.</p>
+     *
+     * @param mappings The commands
+     * @return The summary
+     */
+    static PermissionSummary of(CommandMapping[] mappings) {
+        Set<String> permissions = new LinkedHashSet<String>();
+        Set<CommandCallable> undeclared = new LinkedHashSet<CommandCallable>();
+
+        for (CommandMapping mapping : mappings) {
+            CommandCallable callable = mapping.getCallable();
+            if (callable instanceof SimpleDispatcher) {
+                PermissionSummary summary = ((SimpleDispatcher) callable).getPermissionSummary();
+                permissions.addAll(summary.permissions);
+                undeclared.addAll(summary.undeclared);
+            } else {
+                List<String> declared = callable.getDescription().getPermissions();
+                if (declared.isEmpty()) {
+                    undeclared.add(callable);
+                } else {
+                    permissions.addAll(declared);
+                }
+            }
+        }
+
+        return new PermissionSummary(ImmutableList.copyOf(permissions), ImmutableList.copyOf(undeclared));
+    }
+
+    /**
+     * Get whether some command does not declare the permissions that it
+     * requires, so that the permissions can't be listed in full.
+     *
+     * @return Whether there are such commands
+     */
+    boolean hasUndeclared() {
+        return !undeclared.isEmpty();
+    }
+
+    /**
+     * Get the distinct permissions required by the commands.
+     *
+     * @return The list of permissions
+     */
+    List<String> getPermissions() {
+        return permissions;
+    }
+
+    /**
+     * Test whether any of the summarized commands is permitted.
+     *
+     * @param authorizer The authorizer
+     * @param namespace The namespace
+     * @return Whether permission is granted for at least one command
+     */
+    boolean testPermission(Authorizer authorizer, Namespace namespace) {
+        for (String permission : permissions) {
+            if (PermissionMemo.testPermission(authorizer, namespace, permission)) {
+                return true;
+            }
+        }
+
+        for (CommandCallable callable : undeclared) {
+            if (callable.testPermission(namespace)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
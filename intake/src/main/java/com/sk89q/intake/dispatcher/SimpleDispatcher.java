@@ -21,121 +21,273 @@ package com.sk89q.intake.dispatcher;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.sk89q.intake.*;
 import com.sk89q.intake.argument.CommandContext;
+import com.sk89q.intake.argument.CommandLine;
 import com.sk89q.intake.argument.Namespace;
 import com.sk89q.intake.util.auth.AuthorizationException;
+import com.sk89q.intake.util.auth.Authorizer;
+import com.sk89q.intake.util.auth.PermissionMemo;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A simple implementation of {@link Dispatcher}.
+ *
+ * <p>Commands may be registered while other threads are dispatching. The
+ * registered commands are kept in an immutable snapshot that is replaced
+ * atomically on registration, so reading threads never take a lock and
+ * always see a consistent set of aliases. A new snapshot shares all but
+ * the path to the new aliases with the previous one, and the views of
+ * the registrations are only built when they are first read, so
+ * registering many commands in a row takes linear time.</p>
  */
-public class SimpleDispatcher implements Dispatcher {
+public class SimpleDispatcher implements Dispatcher, CommandLineCallable {
+
+    private static final List<Parameter> PARAMETERS = ImmutableList.<Parameter>of(
+            new ImmutableParameter.Builder()
+                    .setName("subcommand")
+                    .setOptionType(OptionType.positional())
+                    .build(),
+            new ImmutableParameter.Builder()
+                    .setName("...")
+                    .setOptionType(OptionType.optionalPositional())
+                    .build());
 
-    private final Map<String, CommandMapping> commands = new HashMap<String, CommandMapping>();
-    private final Description description;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<Snapshot>(Snapshot.EMPTY);
+    private final CopyOnWriteArrayList<SimpleDispatcher> parents = new CopyOnWriteArrayList<SimpleDispatcher>();
+    private final AtomicLong version = new AtomicLong();
+    @Nullable
+    private volatile Summary summary;
+    @Nullable
+    private volatile Authorizer authorizer;
+    @Nullable
+    private volatile InputLimits inputLimits;
 
     /**
-     * Create a new instance.
+     * Get the authorizer used to test permissions against the summary of
+     * permissions required by registered commands.
+     *
+     * @return The authorizer, or null if every command is asked instead
      */
-    public SimpleDispatcher() {
-        List<Parameter> parameters = Lists.newArrayList();
+    @Nullable
+    public Authorizer getAuthorizer() {
+        return authorizer;
+    }
 
-        parameters.add(
-                new ImmutableParameter.Builder()
-                        .setName("subcommand")
-                        .setOptionType(OptionType.positional())
-                        .build());
+    /**
+     * Set the authorizer used to test permissions against the summary of
+     * permissions required by registered commands.
+     *
+     * <p>When an authorizer is set, {@link #testPermission(Namespace)}
+     * does not ask every command in the tree. It instead checks each
+     * distinct permission returned by the commands'
+     * {@link Description#getPermissions()} once, and a command that lists
+     * no permissions is asked directly. This is only correct if the
+     * permissions that a command lists fully describe its permission
+     * checks, as they do for commands created by
+     * {@link com.sk89q.intake.parametric.ParametricBuilder} with the
+     * same authorizer.</p>
+     *
+     * @param authorizer The authorizer, or null to ask every command
+     */
+    public void setAuthorizer(@Nullable Authorizer authorizer) {
+        this.authorizer = authorizer;
+    }
 
-        parameters.add(
-                new ImmutableParameter.Builder()
-                        .setName("...")
-                        .setOptionType(OptionType.optionalPositional())
-                        .build());
+    /**
+     * Get the limits that input passed to this dispatcher as a string
+     * must be within.
+     *
+     * @return The limits, or null if input is not limited
+     */
+    @Nullable
+    public InputLimits getInputLimits() {
+        return inputLimits;
+    }
 
-        description = new ImmutableDescription.Builder()
-                .setParameters(parameters)
-                .build();
+    /**
+     * Set the limits that input passed to this dispatcher as a string
+     * must be within.
+     *
+     * <p>The limits are enforced by {@link #call(String, Namespace, List)}
+     * and {@link #getSuggestions(String, Namespace)} before the input is
+     * tokenized, so they only need to be set on the root dispatcher.</p>
+     *
+     * @param inputLimits The limits, or null to not limit input
+     */
+    public void setInputLimits(@Nullable InputLimits inputLimits) {
+        this.inputLimits = inputLimits;
     }
 
     @Override
     public void registerCommand(CommandCallable callable, String... alias) {
         CommandMapping mapping = new ImmutableCommandMapping(callable, alias);
-        
-        // Check for replacements
-        for (String a : alias) {
-            String lower = a.toLowerCase();
-            if (commands.containsKey(lower)) {
-                throw new IllegalArgumentException(
-                        "Can't add the command '" + a + "' because SimpleDispatcher does not support replacing commands");
+
+        while (true) {
+            Snapshot current = snapshot.get();
+
+            // Check for replacements
+            for (String a : alias) {
+                if (current.index.get(a) != null) {
+                    throw new IllegalArgumentException(
+                            "Can't add the command '" + a + "' because SimpleDispatcher does not support replacing commands");
+                }
+            }
+
+            if (snapshot.compareAndSet(current, current.with(mapping, alias))) {
+                if (callable instanceof SimpleDispatcher) {
+                    ((SimpleDispatcher) callable).parents.addIfAbsent(this);
+                }
+                changed(Collections.newSetFromMap(new IdentityHashMap<SimpleDispatcher, Boolean>()));
+                return;
             }
         }
-        
-        for (String a : alias) {
-            String lower = a.toLowerCase();
-            commands.put(lower, mapping);
+    }
+
+    /**
+     * Get the summary of permissions required by registered commands.
+     *
+     * @return The summary
+     */
+    PermissionSummary getPermissionSummary() {
+        return getSummary().permissions;
+    }
+
+    /**
+     * Get the summary of permissions and the description, computing them
+     * again if a command has been registered here or below since they
+     * were last computed.
+     *
+     * @return The summary
+     */
+    private Summary getSummary() {
+        // Read the version first so that a concurrent change is not missed
+        long version = this.version.get();
+        Snapshot current = snapshot.get();
+        Summary summary = this.summary;
+
+        if (summary == null || summary.version != version || summary.snapshot != current) {
+            summary = new Summary(version, current, PermissionSummary.of(current.getMappingArray()));
+            this.summary = summary;
+        }
+
+        return summary;
+    }
+
+    /**
+     * Get a number that changes whenever a command is registered with this
+     * dispatcher or with any {@link SimpleDispatcher} below it.
+     *
+     * @return The version
+     */
+    long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Update the version after this dispatcher or a child dispatcher has
+     * changed, and then do the same for every parent.
+     *
+     * @param visited The dispatchers that have already been updated
+     */
+    private void changed(Set<SimpleDispatcher> visited) {
+        if (!visited.add(this)) {
+            return;
+        }
+
+        version.incrementAndGet();
+
+        for (SimpleDispatcher parent : parents) {
+            parent.changed(visited);
         }
     }
 
     @Override
     public Set<CommandMapping> getCommands() {
-        return Collections.unmodifiableSet(new HashSet<CommandMapping>(commands.values()));
+        return snapshot.get().getViews().mappings;
     }
     
     @Override
     public Set<String> getAliases() {
-        return Collections.unmodifiableSet(commands.keySet());
+        return snapshot.get().getViews().commands.keySet();
     }
     
     @Override
     public Set<String> getPrimaryAliases() {
-        Set<String> aliases = new HashSet<String>();
-        for (CommandMapping mapping : getCommands()) {
-            aliases.add(mapping.getPrimaryAlias());
-        }
-        return Collections.unmodifiableSet(aliases);
+        return snapshot.get().getViews().primaryAliases;
     }
 
     @Override
     public boolean contains(String alias) {
-        return commands.containsKey(alias.toLowerCase());
+        return snapshot.get().index.get(alias) != null;
     }
 
     @Override
     public CommandMapping get(String alias) {
-        return commands.get(alias.toLowerCase());
+        return snapshot.get().index.get(alias);
     }
 
     @Override
     public boolean call(String arguments, Namespace namespace, List<String> parentCommands) throws CommandException, InvocationCommandException, AuthorizationException {
+        InputLimits inputLimits = this.inputLimits;
+        if (inputLimits != null) {
+            inputLimits.enforce(arguments);
+        }
+
+        return call(CommandLine.of(arguments, parentCommands), namespace);
+    }
+
+    @Override
+    public boolean call(CommandLine commandLine, Namespace namespace) throws CommandException, InvocationCommandException, AuthorizationException {
+        boolean ownsMemo = PermissionMemo.install(namespace);
+        try {
+            return dispatch(commandLine, namespace);
+        } finally {
+            if (ownsMemo) {
+                PermissionMemo.uninstall(namespace);
+            }
+        }
+    }
+
+    private boolean dispatch(CommandLine commandLine, Namespace namespace) throws CommandException, InvocationCommandException, AuthorizationException {
         // We have permission for this command if we have permissions for subcommands
         if (!testPermission(namespace)) {
             throw new AuthorizationException();
         }
 
-        String[] split = CommandContext.split(arguments);
-        Set<String> aliases = getPrimaryAliases();
+        Snapshot current = snapshot.get();
 
-        if (aliases.isEmpty()) {
-            throw new InvalidUsageException("This command has no sub-commands.", this, parentCommands);
-        } else if (split.length > 0) {
-            String subCommand = split[0];
-            String subArguments = Joiner.on(" ").join(Arrays.copyOfRange(split, 1, split.length));
-            List<String> subParents = ImmutableList.<String>builder().addAll(parentCommands).add(subCommand).build();
-            CommandMapping mapping = get(subCommand);
+        if (current.registrations == null) {
+            throw new InvalidUsageException("This command has no sub-commands.", this, commandLine.getParentCommands());
+        } else if (commandLine.hasNext()) {
+            int position = commandLine.position();
+            CommandMapping mapping = current.index.get(commandLine.getLine(), commandLine.start(position), commandLine.end(position));
 
             if (mapping != null) {
+                CommandLine subLine = commandLine.advance();
+                CommandCallable callable = mapping.getCallable();
+
                 try {
-                    mapping.getCallable().call(subArguments, namespace, subParents);
+                    if (callable instanceof CommandLineCallable) {
+                        ((CommandLineCallable) callable).call(subLine, namespace);
+                    } else {
+                        callable.call(subLine.getRemaining(), namespace, subLine.getParentCommands());
+                    }
                 } catch (AuthorizationException e) {
                     throw e;
                 } catch (CommandException e) {
@@ -151,26 +303,40 @@ public class SimpleDispatcher implements Dispatcher {
 
         }
 
-        throw new InvalidUsageException("Please choose a sub-command.", this, parentCommands, true);
+        throw new InvalidUsageException("Please choose a sub-command.", this, commandLine.getParentCommands(), true);
     }
 
     @Override
     public List<String> getSuggestions(String arguments, Namespace locals) throws CommandException {
+        InputLimits inputLimits = this.inputLimits;
+        if (inputLimits != null) {
+            inputLimits.enforce(arguments);
+        }
+
+        boolean ownsMemo = PermissionMemo.install(locals);
+        try {
+            return suggest(arguments, locals);
+        } finally {
+            if (ownsMemo) {
+                PermissionMemo.uninstall(locals);
+            }
+        }
+    }
+
+    private List<String> suggest(String arguments, Namespace locals) throws CommandException {
         String[] split = CommandContext.split(arguments);
 
         if (split.length <= 1) {
             String prefix = split.length > 0 ? split[0] : "";
 
+            Set<CommandMapping> matches = new LinkedHashSet<CommandMapping>();
+            snapshot.get().index.collect(prefix, matches);
+
             List<String> suggestions = new ArrayList<String>();
 
-            for (CommandMapping mapping : getCommands()) {
+            for (CommandMapping mapping : matches) {
                 if (mapping.getCallable().testPermission(locals)) {
-                    for (String alias : mapping.getAllAliases()) {
-                        if (prefix.isEmpty() || alias.startsWith(arguments)) {
-                            suggestions.add(mapping.getPrimaryAlias());
-                            break;
-                        }
-                    }
+                    suggestions.add(mapping.getPrimaryAlias());
                 }
             }
 
@@ -190,12 +356,18 @@ public class SimpleDispatcher implements Dispatcher {
 
     @Override
     public Description getDescription() {
-        return description;
+        return getSummary().description;
     }
 
     @Override
     public boolean testPermission(Namespace locals) {
-        for (CommandMapping mapping : getCommands()) {
+        Authorizer authorizer = this.authorizer;
+
+        if (authorizer != null) {
+            return getSummary().permissions.testPermission(authorizer, locals);
+        }
+
+        for (CommandMapping mapping : snapshot.get().getMappingArray()) {
             if (mapping.getCallable().testPermission(locals)) {
                 return true;
             }
@@ -204,4 +376,118 @@ public class SimpleDispatcher implements Dispatcher {
         return false;
     }
 
+    /**
+     * An immutable set of registrations, along with views of the
+     * registrations that are computed when they are first needed.
+     */
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(null, AliasTrie.EMPTY);
+
+        @Nullable
+        private final Registration registrations;
+        private final AliasTrie index;
+        @Nullable
+        private volatile Views views;
+
+        private Snapshot(@Nullable Registration registrations, AliasTrie index) {
+            this.registrations = registrations;
+            this.index = index;
+        }
+
+        private Snapshot with(CommandMapping mapping, String... alias) {
+            AliasTrie index = this.index;
+            for (String a : alias) {
+                index = index.with(a, mapping);
+            }
+            return new Snapshot(new Registration(mapping, alias.clone(), registrations), index);
+        }
+
+        private CommandMapping[] getMappingArray() {
+            return getViews().mappingArray;
+        }
+
+        private Views getViews() {
+            // Racing threads may both build the views, which is harmless
+            Views views = this.views;
+            if (views == null) {
+                views = new Views(registrations);
+                this.views = views;
+            }
+            return views;
+        }
+    }
+
+    /**
+     * A registration of a mapping, linked to the registrations that were
+     * made before it.
+     */
+    private static final class Registration {
+        private final CommandMapping mapping;
+        private final String[] aliases;
+        @Nullable
+        private final Registration previous;
+
+        private Registration(CommandMapping mapping, String[] aliases, @Nullable Registration previous) {
+            this.mapping = mapping;
+            this.aliases = aliases;
+            this.previous = previous;
+        }
+    }
+
+    /**
+     * The views of a list of registrations, in registration order.
+     */
+    private static final class Views {
+        private final ImmutableMap<String, CommandMapping> commands;
+        private final ImmutableSet<CommandMapping> mappings;
+        private final CommandMapping[] mappingArray;
+        private final ImmutableSet<String> primaryAliases;
+
+        private Views(@Nullable Registration registrations) {
+            List<Registration> ordered = new ArrayList<Registration>();
+            for (Registration registration = registrations; registration != null; registration = registration.previous) {
+                ordered.add(registration);
+            }
+            Collections.reverse(ordered);
+
+            Map<String, CommandMapping> commands = new LinkedHashMap<String, CommandMapping>();
+            for (Registration registration : ordered) {
+                for (String alias : registration.aliases) {
+                    commands.put(AliasTrie.fold(alias), registration.mapping);
+                }
+            }
+
+            this.commands = ImmutableMap.copyOf(commands);
+            this.mappings = ImmutableSet.copyOf(commands.values());
+            this.mappingArray = mappings.toArray(new CommandMapping[mappings.size()]);
+
+            ImmutableSet.Builder<String> primaryAliases = ImmutableSet.builder();
+            for (CommandMapping mapping : mappingArray) {
+                primaryAliases.add(mapping.getPrimaryAlias());
+            }
+            this.primaryAliases = primaryAliases.build();
+        }
+    }
+
+    /**
+     * The summary of permissions of a snapshot, and the description that
+     * lists them, for a given version of the dispatcher.
+     */
+    private static final class Summary {
+        private final long version;
+        private final Snapshot snapshot;
+        private final PermissionSummary permissions;
+        private final Description description;
+
+        private Summary(long version, Snapshot snapshot, PermissionSummary permissions) {
+            this.version = version;
+            this.snapshot = snapshot;
+            this.permissions = permissions;
+            this.description = new ImmutableDescription.Builder()
+                    .setParameters(PARAMETERS)
+                    .setPermissions(permissions.hasUndeclared() ? ImmutableList.<String>of() : permissions.getPermissions())
+                    .build();
+        }
+    }
+
 }
@@ -0,0 +1,139 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.dispatcher;
+
+import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sk89q.intake.argument.Namespace;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Caches the commands of a dispatcher that are visible to each permission
+ * group, for uses such as help listings and tab completion.
+ *
+ * <p>The group of a namespace is found with a function. Every namespace
+ * in a group must be granted the same permissions, such as when the
+ * group is the name of a role. If the function returns null, the visible
+ * commands are computed without caching.</p>
+ *
+ * <p>If the dispatcher is a {@link SimpleDispatcher}, cached trees are
+ * recomputed after a command is registered with it or with a
+ * {@link SimpleDispatcher} below it. Changes to other dispatchers, and
+ * changes to the permissions of a group, must be announced with
+ * {@link #invalidate(Object)} or {@link #invalidateAll()}.</p>
+ *
+ * <p>Instances are thread-safe.</p>
+ */
+public class VisibilityCache {
+
+    private final Dispatcher dispatcher;
+    private final Function<? super Namespace, ?> groupFunction;
+    private final Cache<Object, Entry> cache;
+
+    /**
+     * Create a new instance that keeps up to 1,000 groups.
+     *
+     * @param dispatcher The dispatcher
+     * @param groupFunction The function that returns the group of a namespace
+     */
+    public VisibilityCache(Dispatcher dispatcher, Function<? super Namespace, ?> groupFunction) {
+        this(dispatcher, groupFunction, 1000);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param dispatcher The dispatcher
+     * @param groupFunction The function that returns the group of a namespace
+     * @param maximumSize The maximum number of groups to keep
+     */
+    public VisibilityCache(Dispatcher dispatcher, Function<? super Namespace, ?> groupFunction, long maximumSize) {
+        checkNotNull(dispatcher, "dispatcher");
+        checkNotNull(groupFunction, "groupFunction");
+        checkArgument(maximumSize >= 0, "maximumSize can't be negative");
+        this.dispatcher = dispatcher;
+        this.groupFunction = groupFunction;
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Get the commands that are visible for the given namespace.
+     *
+     * @param namespace The namespace
+     * @return The list of visible commands
+     * @see VisibleCommand#compute(Dispatcher, Namespace)
+     */
+    public List<VisibleCommand> getVisibleCommands(Namespace namespace) {
+        checkNotNull(namespace, "namespace");
+        Object group = groupFunction.apply(namespace);
+        if (group == null) {
+            return VisibleCommand.compute(dispatcher, namespace);
+        }
+
+        // Read the version first so that a registration during the
+        // traversal leaves an entry that is already out of date
+        long version = getVersion();
+        Entry entry = cache.getIfPresent(group);
+        if (entry != null && entry.version == version) {
+            return entry.commands;
+        }
+
+        List<VisibleCommand> commands = VisibleCommand.compute(dispatcher, namespace);
+        cache.put(group, new Entry(version, commands));
+        return commands;
+    }
+
+    /**
+     * Forget the visible commands of the given group.
+     *
+     * @param group The group, as returned by the group function
+     */
+    public void invalidate(Object group) {
+        checkNotNull(group, "group");
+        cache.invalidate(group);
+    }
+
+    /**
+     * Forget the visible commands of every group.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private long getVersion() {
+        return dispatcher instanceof SimpleDispatcher ? ((SimpleDispatcher) dispatcher).getVersion() : 0;
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final List<VisibleCommand> commands;
+
+        private Entry(long version, List<VisibleCommand> commands) {
+            this.version = version;
+            this.commands = commands;
+        }
+    }
+
+}
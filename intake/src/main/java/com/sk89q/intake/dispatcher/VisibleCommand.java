@@ -0,0 +1,146 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.dispatcher;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.CommandMapping;
+import com.sk89q.intake.argument.Namespace;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A command that is visible to a subject, along with the visible commands
+ * below it if the command is a {@link Dispatcher}.
+ *
+ * <p>Instances are immutable.</p>
+ *
+ * @see VisibilityCache
+ */
+public final class VisibleCommand {
+
+    private final CommandMapping mapping;
+    private final List<VisibleCommand> children;
+
+    private VisibleCommand(CommandMapping mapping, List<VisibleCommand> children) {
+        this.mapping = mapping;
+        this.children = children;
+    }
+
+    /**
+     * Get the mapping of the command.
+     *
+     * @return The mapping
+     */
+    public CommandMapping getMapping() {
+        return mapping;
+    }
+
+    /**
+     * Get the visible commands below this command, in the order they are
+     * returned by {@link Dispatcher#getCommands()}.
+     *
+     * @return The list of children, which is empty if the command is not a dispatcher
+     */
+    public List<VisibleCommand> getChildren() {
+        return children;
+    }
+
+    /**
+     * Compute the commands of the given dispatcher that are visible for
+     * the given namespace.
+     *
+     * <p>The tree is built in one traversal. A command that is registered
+     * in several places is only tested once, and its subtree is shared.
+     * A {@link SimpleDispatcher} is visible if any command below it is
+     * visible, which is the same rule that its
+     * {@link SimpleDispatcher#testPermission(Namespace)} applies, so it is
+     * never asked directly. Other commands are asked with
+     * {@link CommandCallable#testPermission(Namespace)}.</p>
+     *
+     * @param dispatcher The dispatcher
+     * @param namespace The namespace
+     * @return The list of visible commands
+     */
+    public static List<VisibleCommand> compute(Dispatcher dispatcher, Namespace namespace) {
+        checkNotNull(dispatcher, "dispatcher");
+        checkNotNull(namespace, "namespace");
+        return new Traversal(namespace).children(dispatcher);
+    }
+
+    private static final class Traversal {
+        private final Namespace namespace;
+        private final Map<CommandCallable, Result> results = new IdentityHashMap<CommandCallable, Result>();
+
+        private Traversal(Namespace namespace) {
+            this.namespace = namespace;
+        }
+
+        List<VisibleCommand> children(Dispatcher dispatcher) {
+            ImmutableList.Builder<VisibleCommand> children = ImmutableList.builder();
+            for (CommandMapping mapping : dispatcher.getCommands()) {
+                Result result = visit(mapping.getCallable());
+                if (result.visible) {
+                    children.add(new VisibleCommand(mapping, result.children));
+                }
+            }
+            return children.build();
+        }
+
+        private Result visit(CommandCallable callable) {
+            Result result = results.get(callable);
+            if (result != null) {
+                return result;
+            }
+
+            // Guard against dispatchers that contain themselves
+            results.put(callable, Result.HIDDEN);
+
+            if (callable instanceof Dispatcher) {
+                List<VisibleCommand> children = children((Dispatcher) callable);
+                boolean visible = callable instanceof SimpleDispatcher ? !children.isEmpty() : callable.testPermission(namespace);
+                result = visible ? new Result(true, children) : Result.HIDDEN;
+            } else {
+                result = callable.testPermission(namespace) ? Result.LEAF : Result.HIDDEN;
+            }
+
+            results.put(callable, result);
+            return result;
+        }
+    }
+
+    private static final class Result {
+        private static final Result HIDDEN = new Result(false, ImmutableList.<VisibleCommand>of());
+        private static final Result LEAF = new Result(true, ImmutableList.<VisibleCommand>of());
+
+        private final boolean visible;
+        private final List<VisibleCommand> children;
+
+        private Result(boolean visible, List<VisibleCommand> children) {
+            this.visible = visible;
+            this.children = children;
+        }
+    }
+
+}
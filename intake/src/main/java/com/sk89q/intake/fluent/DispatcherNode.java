@@ -79,11 +79,14 @@ public class DispatcherNode {
      * <p>The object returned by this method can be used to add sub-commands. To
      * return to this "parent" context, use {@link DispatcherNode#graph()}.</p>
      * 
+     * <p>The new dispatcher is given the same authorizer as this one.</p>
+     * 
      * @param alias the list of aliases, where the first alias is the primary one
      * @return an object to place sub-commands
      */
     public DispatcherNode group(String... alias) {
         SimpleDispatcher command = new SimpleDispatcher();
+        command.setAuthorizer(dispatcher.getAuthorizer());
         getDispatcher().registerCommand(command, alias);
         return new DispatcherNode(graph, this, command);
     }
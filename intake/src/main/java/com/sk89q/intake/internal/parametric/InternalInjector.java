@@ -23,6 +23,7 @@ import com.sk89q.intake.argument.ArgumentException;
 import com.sk89q.intake.parametric.*;
 import com.sk89q.intake.argument.CommandArgs;
 import com.sk89q.intake.parametric.provider.DefaultModule;
+import com.sk89q.intake.parametric.provider.EnumProvider;
 
 import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
@@ -47,7 +48,28 @@ public class InternalInjector implements Injector {
     @Override
     @Nullable
     public <T> Binding<T> getBinding(Key<T> key) {
-        return bindings.getBinding(key);
+        Binding<T> binding = bindings.getBinding(key);
+        if (binding == null) {
+            binding = getEnumBinding(key);
+        }
+        return binding;
+    }
+
+    /**
+     * Get a binding to an {@link EnumProvider} for an enum type that was
+     * not bound explicitly.
+     *
+     * @param key The key
+     * @param <T> The type provided for
+     * @return The binding, or null if the key isn't for an enum
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Nullable
+    private static <T> Binding<T> getEnumBinding(Key<T> key) {
+        if (key.getClassifier() == null && key.getType() instanceof Class<?> && ((Class<?>) key.getType()).isEnum()) {
+            return new EnumBinding(key, new EnumProvider((Class) key.getType()));
+        }
+        return null;
     }
 
     @Override
@@ -84,4 +106,24 @@ public class InternalInjector implements Injector {
         return getInstance(Key.get(type), arguments, modifiers);
     }
 
+    private static final class EnumBinding<T> implements Binding<T> {
+        private final Key<T> key;
+        private final Provider<T> provider;
+
+        private EnumBinding(Key<T> key, Provider<T> provider) {
+            this.key = key;
+            this.provider = provider;
+        }
+
+        @Override
+        public Key<T> getKey() {
+            return key;
+        }
+
+        @Override
+        public Provider<T> getProvider() {
+            return provider;
+        }
+    }
+
 }
@@ -21,8 +21,8 @@ package com.sk89q.intake.parametric;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.sk89q.intake.CommandCallable;
 import com.sk89q.intake.CommandException;
+import com.sk89q.intake.CommandLineCallable;
 import com.sk89q.intake.InvalidUsageException;
 import com.sk89q.intake.InvocationCommandException;
 import com.sk89q.intake.argument.ArgumentException;
@@ -30,13 +30,16 @@ import com.sk89q.intake.argument.ArgumentParseException;
 import com.sk89q.intake.argument.Arguments;
 import com.sk89q.intake.argument.CommandArgs;
 import com.sk89q.intake.argument.CommandContext;
+import com.sk89q.intake.argument.CommandLine;
 import com.sk89q.intake.argument.MissingArgumentException;
 import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.argument.Tokens;
 import com.sk89q.intake.argument.UnusedArgumentException;
 import com.sk89q.intake.parametric.handler.ExceptionConverter;
 import com.sk89q.intake.parametric.handler.InvokeHandler;
 import com.sk89q.intake.parametric.handler.InvokeListener;
 import com.sk89q.intake.util.auth.AuthorizationException;
+import com.sk89q.intake.util.auth.PermissionMemo;
 
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
@@ -51,7 +54,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 /**
  * A base class for commands that use {@link ArgumentParser}.
  */
-public abstract class AbstractParametricCallable implements CommandCallable {
+public abstract class AbstractParametricCallable implements CommandLineCallable {
 
     private final ParametricBuilder builder;
     private final ArgumentParser parser;
@@ -156,14 +159,41 @@ public abstract class AbstractParametricCallable implements CommandCallable {
 
     @Override
     public final boolean call(String stringArguments, Namespace namespace, List<String> parentCommands) throws CommandException, InvocationCommandException, AuthorizationException {
-        // Test permission
-        if (!testPermission(namespace)) {
-            throw new AuthorizationException();
+        boolean ownsMemo = PermissionMemo.install(namespace);
+        try {
+            // Test permission
+            if (!testPermission(namespace)) {
+                throw new AuthorizationException();
+            }
+
+            String calledCommand = !parentCommands.isEmpty() ? parentCommands.get(parentCommands.size() - 1) : "_";
+            return call(calledCommand, Tokens.split(stringArguments), namespace, parentCommands);
+        } finally {
+            if (ownsMemo) {
+                PermissionMemo.uninstall(namespace);
+            }
+        }
+    }
+
+    @Override
+    public final boolean call(CommandLine commandLine, Namespace namespace) throws CommandException, InvocationCommandException, AuthorizationException {
+        boolean ownsMemo = PermissionMemo.install(namespace);
+        try {
+            // Test permission
+            if (!testPermission(namespace)) {
+                throw new AuthorizationException();
+            }
+
+            return call(commandLine.getCommand(), commandLine.getRemainingTokens(), namespace, commandLine.getParentCommands());
+        } finally {
+            if (ownsMemo) {
+                PermissionMemo.uninstall(namespace);
+            }
         }
+    }
 
-        String calledCommand = !parentCommands.isEmpty() ? parentCommands.get(parentCommands.size() - 1) : "_";
-        String[] split = CommandContext.split(calledCommand + " " + stringArguments);
-        CommandContext context = new CommandContext(split, parser.getValueFlags(), false, namespace);
+    private boolean call(String calledCommand, Tokens arguments, Namespace namespace, List<String> parentCommands) throws CommandException, InvocationCommandException, AuthorizationException {
+        CommandContext context = new CommandContext(calledCommand, arguments, parser.getValueFlags(), false, namespace);
         final CommandArgs commandArgs = Arguments.viewOf(context);
         List<InvokeHandler> handlers = new ArrayList<InvokeHandler>();
 
@@ -191,17 +221,27 @@ public abstract class AbstractParametricCallable implements CommandCallable {
                 return true; // Abort early
             }
 
-            final Object[] args = parser.parseArguments(commandArgs, ignoreUnusedFlags, unusedFlags);
+            ParameterValues parsed = parser.parseValues(commandArgs, ignoreUnusedFlags, unusedFlags);
+            final ParameterValues values;
+            Object[] args = null;
 
-            // preInvoke
-            for (InvokeHandler handler : handlers) {
-                if (!handler.preInvoke(commandAnnotations, parser, args, commandArgs)) {
-                    invoke = false;
+            if (handlers.isEmpty()) {
+                values = parsed; // Primitives stay unboxed
+            } else {
+                args = parsed.toArray();
+
+                // preInvoke
+                for (InvokeHandler handler : handlers) {
+                    if (!handler.preInvoke(commandAnnotations, parser, args, commandArgs)) {
+                        invoke = false;
+                    }
                 }
-            }
 
-            if (!invoke) {
-                return true; // Abort early
+                if (!invoke) {
+                    return true; // Abort early
+                }
+
+                values = ParameterValues.of(args);
             }
 
             namespace.put(CommandArgs.class, commandArgs);
@@ -211,7 +251,7 @@ public abstract class AbstractParametricCallable implements CommandCallable {
                 builder.getCommandExecutor().submit(new Callable<Object>() {
                     @Override
                     public Object call() throws Exception {
-                        AbstractParametricCallable.this.call(args);
+                        AbstractParametricCallable.this.call(values);
                         return null;
                     }
                 }, commandArgs).get();
@@ -272,6 +312,21 @@ public abstract class AbstractParametricCallable implements CommandCallable {
      */
     protected abstract void call(Object[] args) throws Exception;
 
+    /**
+     * Called with parsed arguments to execute the command.
+     *
+     * <p>The default implementation boxes the values and calls
+     * {@link #call(Object[])}. Implementations that can pass primitive
+     * values to the command without boxing them should override this
+     * method.</p>
+     *
+     * @param values The arguments parsed into the appropriate Java objects
+     * @throws Exception on any exception
+     */
+    protected void call(ParameterValues values) throws Exception {
+        call(values.toArray());
+    }
+
     @Override
     public List<String> getSuggestions(String arguments, Namespace locals) throws CommandException {
         return builder.getDefaultCompleter().getSuggestions(arguments, locals);
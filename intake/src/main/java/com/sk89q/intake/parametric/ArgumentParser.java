@@ -24,17 +24,20 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Primitives;
 import com.sk89q.intake.*;
 import com.sk89q.intake.argument.*;
 import com.sk89q.intake.parametric.annotation.Classifier;
 import com.sk89q.intake.parametric.annotation.Optional;
 import com.sk89q.intake.parametric.annotation.Switch;
 
+import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -46,14 +49,38 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public final class ArgumentParser {
 
-    private final List<ParameterEntry> parameters;
+    private final ParameterEntry[] entries;
     private final List<Parameter> userParams;
     private final Set<Character> valueFlags;
+    @Nullable
+    private final Class<?>[] primitiveTypes;
+    private final FlagMask consumedFlags;
+    @Nullable
+    private volatile AllowedFlags lastAllowedFlags;
 
     private ArgumentParser(List<ParameterEntry> parameters, List<Parameter> userParams, Set<Character> valueFlags) {
-        this.parameters = ImmutableList.copyOf(parameters);
+        this.entries = parameters.toArray(new ParameterEntry[parameters.size()]);
         this.userParams = ImmutableList.copyOf(userParams);
         this.valueFlags = ImmutableSet.copyOf(valueFlags);
+
+        Class<?>[] primitiveTypes = null;
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].storage != Storage.OBJECT) {
+                if (primitiveTypes == null) {
+                    primitiveTypes = new Class<?>[entries.length];
+                }
+                primitiveTypes[i] = (Class<?>) entries[i].getKey().getType();
+            }
+        }
+        this.primitiveTypes = primitiveTypes;
+
+        List<Character> consumedFlags = Lists.newArrayList();
+        for (ParameterEntry entry : entries) {
+            if (entry.flag != null) {
+                consumedFlags.add(entry.flag);
+            }
+        }
+        this.consumedFlags = FlagMask.EMPTY.union(consumedFlags);
     }
 
     /**
@@ -97,100 +124,169 @@ public final class ArgumentParser {
      * @throws ProvisionException If there is a problem with the binding itself
      */
     public Object[] parseArguments(CommandArgs args, boolean ignoreUnusedFlags, Set<Character> unusedFlags) throws ArgumentException, ProvisionException {
-        Object[] parsedObjects = new Object[parameters.size()];
-
-        for (int i = 0; i < parameters.size(); i++) {
-            ParameterEntry entry = parameters.get(i);
-            OptionType optionType = entry.getParameter().getOptionType();
-            CommandArgs argsForParameter = optionType.transform(args);
-
-            try {
-                parsedObjects[i] = entry.getBinding().getProvider().get(argsForParameter, entry.getModifiers());
-            } catch (ArgumentParseException e) {
-                throw new ArgumentParseException(e.getMessage(), e, entry.getParameter());
-            } catch (MissingArgumentException e) {
-                if (!optionType.isOptional()) {
-                    throw new MissingArgumentException(e, entry.getParameter());
-                }
+        return parseValues(args, ignoreUnusedFlags, unusedFlags).toArray();
+    }
 
-                parsedObjects[i] = getDefaultValue(entry, args);
+    /**
+     * Parse the given arguments into Java objects, without boxing the
+     * values of primitive parameters that have a {@link PrimitiveProvider}.
+     *
+     * @param args The tokenized arguments
+     * @param ignoreUnusedFlags Whether unused flags should not throw an exception
+     * @param unusedFlags List of flags that can be unconsumed
+     * @return The parsed values
+     * @throws ArgumentException If there is a problem with the provided arguments
+     * @throws ProvisionException If there is a problem with the binding itself
+     */
+    public ParameterValues parseValues(CommandArgs args, boolean ignoreUnusedFlags, Set<Character> unusedFlags) throws ArgumentException, ProvisionException {
+        ParameterValues values = new ParameterValues(primitiveTypes, entries.length);
+
+        for (int i = 0; i < entries.length; i++) {
+            ParameterEntry entry = entries[i];
+
+            switch (entry.kind) {
+                case BOOLEAN_FLAG:
+                    boolean present = args.getFlags().containsKey(entry.flag);
+                    if (entry.flagValuesComputed) {
+                        values.set(i, present ? entry.presentValue : entry.absentValue);
+                    } else {
+                        parseArgument(entry, Arguments.singletonOf(present ? "true" : "false", args.getFlags(), args.getNamespace()), args, values, i);
+                    }
+                    break;
+
+                case VALUE_FLAG:
+                    String value = args.getFlags().get(entry.flag);
+                    if (value != null) {
+                        parseArgument(entry, Arguments.singletonOf(value, args.getFlags(), args.getNamespace()), args, values, i);
+                    } else {
+                        values.set(i, getDefaultValue(entry, args));
+                    }
+                    break;
+
+                default:
+                    parseArgument(entry, args, args, values, i);
             }
         }
 
         // Check for unused arguments
         checkUnconsumed(args, ignoreUnusedFlags, unusedFlags);
 
-        return parsedObjects;
+        return values;
     }
 
-    private Object getDefaultValue(ParameterEntry entry, CommandArgs arguments) {
-        Provider<?> provider = entry.getBinding().getProvider();
+    private void parseArgument(ParameterEntry entry, CommandArgs argsForParameter, CommandArgs args, ParameterValues values, int index) throws ArgumentException, ProvisionException {
+        // An absent optional argument is common, so don't ask a provider
+        // that is known to fail for a value only to catch its exception
+        if (entry.optional && entry.consuming && !argsForParameter.hasNext()) {
+            values.set(index, getDefaultValue(entry, args));
+            return;
+        }
 
-        List<String> defaultValue = entry.getParameter().getDefaultValue();
-        if (defaultValue.isEmpty()) {
-            return null;
-        } else {
-            try {
-                return provider.get(Arguments.copyOf(defaultValue, arguments.getFlags(), arguments.getNamespace()), entry.getModifiers());
-            } catch (ArgumentException e) {
-                throw new IllegalParameterException("No value was specified for the '" + entry.getParameter().getName() + "' parameter " +
-                        "so the default value '" + Joiner.on(" ").join(defaultValue) + "' was used, but this value doesn't work due to an error: " + e.getMessage());
-            } catch (ProvisionException e) {
-                throw new IllegalParameterException("No value was specified for the '" + entry.getParameter().getName() + "' parameter " +
-                        "so the default value '" + Joiner.on(" ").join(defaultValue) + "' was used, but this value doesn't work due to an error: " + e.getMessage());
+        try {
+            Provider<?> provider = entry.getBinding().getProvider();
+            switch (entry.storage) {
+                case INT:
+                    int intValue = ((PrimitiveProvider.OfInt) provider).getInt(argsForParameter, entry.getModifiers());
+                    if (entry.validator != null) {
+                        entry.validator.validateLong(intValue);
+                    }
+                    values.setLong(index, intValue);
+                    break;
+                case LONG:
+                    long longValue = ((PrimitiveProvider.OfLong) provider).getLong(argsForParameter, entry.getModifiers());
+                    if (entry.validator != null) {
+                        entry.validator.validateLong(longValue);
+                    }
+                    values.setLong(index, longValue);
+                    break;
+                case DOUBLE:
+                    double doubleValue = ((PrimitiveProvider.OfDouble) provider).getDouble(argsForParameter, entry.getModifiers());
+                    if (entry.validator != null) {
+                        entry.validator.validateDouble(doubleValue);
+                    }
+                    values.setDouble(index, doubleValue);
+                    break;
+                default:
+                    values.set(index, entry.provide(argsForParameter));
+            }
+        } catch (ArgumentParseException e) {
+            throw new ArgumentParseException(e.getMessage(), e, entry.getParameter());
+        } catch (MissingArgumentException e) {
+            if (!entry.optional) {
+                throw new MissingArgumentException(e, entry.getParameter());
             }
+
+            values.set(index, getDefaultValue(entry, args));
         }
     }
 
-    private void checkUnconsumed(CommandArgs arguments, boolean ignoreUnusedFlags, Set<Character> unusedFlags) throws UnusedArgumentException {
-        List<String> unconsumedArguments = Lists.newArrayList();
+    private Object getDefaultValue(ParameterEntry entry, CommandArgs arguments) {
+        if (entry.defaultValueComputed) {
+            return entry.defaultValue;
+        }
 
-        if (!ignoreUnusedFlags) {
-            Set<Character> unconsumedFlags = null;
+        List<String> defaultValue = entry.getParameter().getDefaultValue();
+        try {
+            return entry.provide(Arguments.copyOf(defaultValue, arguments.getFlags(), arguments.getNamespace()));
+        } catch (ArgumentException e) {
+            throw new IllegalParameterException("No value was specified for the '" + entry.getParameter().getName() + "' parameter " +
+                    "so the default value '" + Joiner.on(" ").join(defaultValue) + "' was used, but this value doesn't work due to an error: " + e.getMessage());
+        } catch (ProvisionException e) {
+            throw new IllegalParameterException("No value was specified for the '" + entry.getParameter().getName() + "' parameter " +
+                    "so the default value '" + Joiner.on(" ").join(defaultValue) + "' was used, but this value doesn't work due to an error: " + e.getMessage());
+        }
+    }
 
-            for (char flag : arguments.getFlags().keySet()) {
-                boolean found = false;
+    private void checkUnconsumed(CommandArgs arguments, boolean ignoreUnusedFlags, Set<Character> unusedFlags) throws ArgumentException {
+        List<String> unconsumedArguments = null;
 
-                if (unusedFlags.contains(flag)) {
-                    break;
-                }
+        if (!ignoreUnusedFlags) {
+            Map<Character, String> flags = arguments.getFlags();
 
-                for (ParameterEntry parameter : parameters) {
-                    Character paramFlag = parameter.getParameter().getOptionType().getFlag();
-                    if (paramFlag != null && flag == paramFlag) {
-                        found = true;
-                        break;
-                    }
-                }
+            if (!flags.isEmpty()) {
+                FlagMask allowed = getAllowedFlags(unusedFlags);
 
-                if (!found) {
-                    if (unconsumedFlags == null) {
-                        unconsumedFlags = new HashSet<Character>();
+                for (Character flag : flags.keySet()) {
+                    if (!allowed.contains(flag)) {
+                        if (unconsumedArguments == null) {
+                            unconsumedArguments = Lists.newArrayList();
+                        }
+                        unconsumedArguments.add("-" + flag);
                     }
-                    unconsumedFlags.add(flag);
-                }
-            }
-
-            if (unconsumedFlags != null) {
-                for (Character flag : unconsumedFlags) {
-                    unconsumedArguments.add("-" + flag);
                 }
             }
         }
 
-        while (true) {
-            try {
-                unconsumedArguments.add(arguments.next());
-            } catch (MissingArgumentException ignored) {
-                break;
+        while (arguments.hasNext()) {
+            if (unconsumedArguments == null) {
+                unconsumedArguments = Lists.newArrayList();
             }
+            unconsumedArguments.add(arguments.next());
         }
 
-        if (!unconsumedArguments.isEmpty()) {
+        if (unconsumedArguments != null) {
             throw new UnusedArgumentException(Joiner.on(" ").join(unconsumedArguments));
         }
     }
 
+    /**
+     * Get the flags that are used by a parameter or allowed to be unused.
+     *
+     * <p>Callables pass the same set on every call, so the mask for the
+     * last set is kept.</p>
+     *
+     * @param unusedFlags Flags that can be unconsumed
+     * @return The mask of allowed flags
+     */
+    private FlagMask getAllowedFlags(Set<Character> unusedFlags) {
+        AllowedFlags allowed = lastAllowedFlags;
+        if (allowed == null || allowed.unusedFlags != unusedFlags) {
+            allowed = new AllowedFlags(unusedFlags, unusedFlags.isEmpty() ? consumedFlags : consumedFlags.union(unusedFlags));
+            lastAllowedFlags = allowed;
+        }
+        return allowed.mask;
+    }
+
     /**
      * Builds instances of ArgumentParser.
      */
@@ -288,7 +384,7 @@ public final class ArgumentParser {
                 throw new IllegalParameterException("Can't finding a binding for the parameter type '" + type + "'");
             }
 
-            ParameterEntry entry = new ParameterEntry(parameter, key, binding, modifiers);
+            ParameterEntry entry = new ParameterEntry(parameter, key, binding, modifiers, ValueValidator.compile(modifiers));
 
             if (optionType.isValueFlag()) {
                 valueFlags.add(optionType.getFlag());
@@ -319,17 +415,203 @@ public final class ArgumentParser {
         }
     }
 
+    /**
+     * How the value of a parameter is read, decided once when the parser
+     * is built rather than through {@link OptionType#transform(CommandArgs)}
+     * on every parse.
+     */
+    private enum Kind {
+        POSITIONAL,
+        BOOLEAN_FLAG,
+        VALUE_FLAG
+    }
+
+    /**
+     * How the value of a parameter is stored in {@link ParameterValues}.
+     * Primitive parameters whose provider implements the matching
+     * {@link PrimitiveProvider} interface are stored without boxing.
+     */
+    private enum Storage {
+        OBJECT,
+        INT,
+        LONG,
+        DOUBLE
+    }
+
+    /**
+     * A set of flags, kept as a 128-bit mask for ASCII flags and a set
+     * for any others.
+     */
+    private static final class FlagMask {
+        private static final FlagMask EMPTY = new FlagMask(0, 0, ImmutableSet.<Character>of());
+
+        private final long low;
+        private final long high;
+        private final Set<Character> other;
+
+        private FlagMask(long low, long high, Set<Character> other) {
+            this.low = low;
+            this.high = high;
+            this.other = other;
+        }
+
+        FlagMask union(Collection<Character> flags) {
+            long low = this.low;
+            long high = this.high;
+            ImmutableSet.Builder<Character> other = ImmutableSet.<Character>builder().addAll(this.other);
+
+            for (char flag : flags) {
+                if (flag < 64) {
+                    low |= 1L << flag;
+                } else if (flag < 128) {
+                    high |= 1L << (flag - 64);
+                } else {
+                    other.add(flag);
+                }
+            }
+
+            return new FlagMask(low, high, other.build());
+        }
+
+        boolean contains(char flag) {
+            if (flag < 64) {
+                return (low & (1L << flag)) != 0;
+            } else if (flag < 128) {
+                return (high & (1L << (flag - 64))) != 0;
+            } else {
+                return other.contains(flag);
+            }
+        }
+    }
+
+    /**
+     * The mask of allowed flags for a set of flags that can be unused.
+     */
+    private static final class AllowedFlags {
+        private final Set<Character> unusedFlags;
+        private final FlagMask mask;
+
+        private AllowedFlags(Set<Character> unusedFlags, FlagMask mask) {
+            this.unusedFlags = unusedFlags;
+            this.mask = mask;
+        }
+    }
+
     private static class ParameterEntry {
         private final Parameter parameter;
         private final Key<?> key;
         private final Binding<?> binding;
         private final List<Annotation> modifiers;
-
-        ParameterEntry(Parameter parameter, Key<?> key, Binding<?> binding, List<Annotation> modifiers) {
+        @Nullable
+        private final ValueValidator validator;
+        private final Kind kind;
+        private final Storage storage;
+        @Nullable
+        private final Character flag;
+        private final boolean optional;
+        private final boolean consuming;
+        private boolean defaultValueComputed;
+        @Nullable
+        private Object defaultValue;
+        private boolean flagValuesComputed;
+        @Nullable
+        private Object presentValue;
+        @Nullable
+        private Object absentValue;
+
+        ParameterEntry(Parameter parameter, Key<?> key, Binding<?> binding, List<Annotation> modifiers, @Nullable ValueValidator validator) {
             this.parameter = parameter;
             this.key = key;
             this.binding = binding;
             this.modifiers = modifiers;
+            this.validator = validator;
+
+            OptionType optionType = parameter.getOptionType();
+            this.flag = optionType.getFlag();
+            this.optional = optionType.isOptional();
+            if (flag == null) {
+                this.kind = Kind.POSITIONAL;
+            } else if (optionType.isValueFlag()) {
+                this.kind = Kind.VALUE_FLAG;
+            } else {
+                this.kind = Kind.BOOLEAN_FLAG;
+            }
+            this.storage = getStorage(key.getType(), binding.getProvider());
+            this.consuming = binding.getProvider() instanceof ConsumingProvider;
+
+            precompute();
+        }
+
+        private static Storage getStorage(Type type, Provider<?> provider) {
+            if (type == int.class || type == short.class || type == byte.class) {
+                return provider instanceof PrimitiveProvider.OfInt ? Storage.INT : Storage.OBJECT;
+            } else if (type == long.class) {
+                return provider instanceof PrimitiveProvider.OfLong ? Storage.LONG : Storage.OBJECT;
+            } else if (type == double.class || type == float.class) {
+                return provider instanceof PrimitiveProvider.OfDouble ? Storage.DOUBLE : Storage.OBJECT;
+            } else {
+                return Storage.OBJECT;
+            }
+        }
+
+        /**
+         * Compute the values that do not depend on the input: an empty
+         * default value, and the default value and flag values of
+         * primitive parameters with a {@link StatelessProvider}. Values
+         * that can't be computed are computed on every parse instead, so
+         * that errors are reported then.
+         */
+        private void precompute() {
+            List<String> defaultArguments = parameter.getDefaultValue();
+            if (defaultArguments.isEmpty()) {
+                defaultValue = null;
+                defaultValueComputed = true;
+            } else if (isStateless()) {
+                try {
+                    defaultValue = provide(Arguments.copyOf(defaultArguments));
+                    defaultValueComputed = true;
+                } catch (Exception ignored) {
+                }
+            }
+
+            if (kind == Kind.BOOLEAN_FLAG && isStateless()) {
+                try {
+                    presentValue = binding.getProvider().get(Arguments.of("true"), modifiers);
+                    absentValue = binding.getProvider().get(Arguments.of("false"), modifiers);
+                    flagValuesComputed = true;
+                } catch (Exception ignored) {
+                }
+            }
+        }
+
+        /**
+         * Get a validated value from the provider.
+         *
+         * @param arguments The arguments
+         * @return The value
+         * @throws ArgumentException If there is a problem with the argument
+         * @throws ProvisionException If there is a problem with the provider
+         */
+        @Nullable
+        Object provide(CommandArgs arguments) throws ArgumentException, ProvisionException {
+            Object value = binding.getProvider().get(arguments, modifiers);
+            if (validator != null) {
+                validator.validate(value);
+            }
+            return value;
+        }
+
+        // Primitive values are immutable, so they can be shared
+        private boolean isStateless() {
+            return isPrimitive(key) && binding.getProvider() instanceof StatelessProvider;
+        }
+
+        private static boolean isPrimitive(Key<?> key) {
+            if (key.getClassifier() != null || !(key.getType() instanceof Class<?>)) {
+                return false;
+            }
+            Class<?> type = (Class<?>) key.getType();
+            return type.isPrimitive() || Primitives.isWrapperType(type);
         }
 
         public Parameter getParameter() {
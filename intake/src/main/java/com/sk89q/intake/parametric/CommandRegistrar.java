@@ -0,0 +1,48 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import com.sk89q.intake.dispatcher.Dispatcher;
+
+/**
+ * Registers the {@link com.sk89q.intake.Command} methods of one class
+ * without scanning it through reflection.
+ *
+ * <p>Registrars are generated at compile time by the intake-processor
+ * module. The registrar for a class {@code com.example.Foo} (or the nested
+ * class {@code com.example.Outer.Foo}) is named
+ * {@code com.example.Foo_IntakeCommands} (or
+ * {@code com.example.Outer$$Foo_IntakeCommands}), and is used automatically
+ * by {@link ParametricBuilder#registerMethodsAsCommands(Dispatcher, Object)}
+ * when it can be found.</p>
+ */
+public interface CommandRegistrar {
+
+    /**
+     * Register the commands of the given object with the dispatcher.
+     *
+     * @param builder The builder to build commands with
+     * @param dispatcher The dispatcher to register commands with
+     * @param object The object containing the methods
+     * @throws ParametricException thrown if the commands cannot be registered
+     */
+    void register(ParametricBuilder builder, Dispatcher dispatcher, Object object) throws ParametricException;
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.sk89q.intake.parametric;
+
+import com.sk89q.intake.argument.MissingArgumentException;
+
+/**
+ * Marks a {@link Provider} that reads at least one argument, and that
+ * throws {@link MissingArgumentException} without providing a value if
+ * there are no arguments left. Subclasses of such a provider must keep
+ * to this.
+ *
+ * <p>When no arguments are left for an optional parameter with such a
+ * provider, {@link ArgumentParser} uses the default value without asking
+ * the provider first. Other providers are always asked, because they may
+ * provide a value without any arguments. The built-in providers of
+ * numbers, booleans, strings and enums are consuming providers.</p>
+ */
+public interface ConsumingProvider {
+}
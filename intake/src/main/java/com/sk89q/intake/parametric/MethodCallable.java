@@ -25,12 +25,19 @@ import com.google.common.primitives.Chars;
 import com.sk89q.intake.*;
 import com.sk89q.intake.argument.Namespace;
 import com.sk89q.intake.parametric.handler.InvokeListener;
+import com.sk89q.intake.util.auth.Authorizer;
+import com.sk89q.intake.util.auth.IndexedAuthorizer;
+import com.sk89q.intake.util.auth.PermissionMemo;
+import com.sk89q.intake.util.auth.PermissionIndex;
 
+import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Set;
 
@@ -44,19 +51,41 @@ final class MethodCallable extends AbstractParametricCallable {
 
     private final Object object;
     private final Method method;
+    @Nullable
+    private final MethodInvoker invoker;
     private final Description description;
     private final List<String> permissions;
+    @Nullable
+    private final BitSet permissionIds;
 
-    private MethodCallable(ParametricBuilder builder, ArgumentParser parser, Object object, Method method, Description description, List<String> permissions) {
+    private MethodCallable(ParametricBuilder builder, ArgumentParser parser, Object object, Method method, @Nullable MethodInvoker invoker, Description description, List<String> permissions) {
         super(builder, parser);
         this.object = object;
         this.method = method;
+        this.invoker = invoker;
         this.description = description;
         this.permissions = permissions;
+
+        PermissionIndex index = builder.getPermissionIndex();
+        this.permissionIds = permissions != null && index != null ? index.internAll(permissions) : null;
+    }
+
+    @Override
+    protected void call(ParameterValues values) throws Exception {
+        if (invoker != null) {
+            invoker.invoke(values);
+        } else {
+            call(values.toArray());
+        }
     }
 
     @Override
     protected void call(Object[] args) throws Exception {
+        if (invoker != null) {
+            invoker.invoke(ParameterValues.of(args));
+            return;
+        }
+
         try {
             method.invoke(object, args);
         } catch (IllegalAccessException e) {
@@ -78,8 +107,17 @@ final class MethodCallable extends AbstractParametricCallable {
     @Override
     public boolean testPermission(Namespace namespace) {
         if (permissions != null) {
+            Authorizer authorizer = getBuilder().getAuthorizer();
+
+            if (permissionIds != null && authorizer instanceof IndexedAuthorizer) {
+                BitSet granted = ((IndexedAuthorizer) authorizer).getGrantedPermissions(namespace);
+                if (granted != null) {
+                    return permissionIds.intersects(granted);
+                }
+            }
+
             for (String perm : permissions) {
-                if (getBuilder().getAuthorizer().testPermission(namespace, perm)) {
+                if (PermissionMemo.testPermission(authorizer, namespace, perm)) {
                     return true;
                 }
             }
@@ -90,7 +128,36 @@ final class MethodCallable extends AbstractParametricCallable {
         }
     }
 
-    static MethodCallable create(ParametricBuilder builder, Object object, Method method) throws IllegalParameterException {
+    /**
+     * Get a copy of a public method that {@link Method#invoke} does not
+     * check access for on every call. Otherwise, calling a public method
+     * of a non-public class in another package also fails.
+     *
+     * <p>Other methods keep their access checks. The given method is
+     * returned if access can't be suppressed, such as when the method
+     * is in a module that does not open its package.</p>
+     *
+     * @param method The method
+     * @return The method to invoke
+     */
+    private static Method getInvocableMethod(Method method) {
+        if (!Modifier.isPublic(method.getModifiers())) {
+            return method;
+        }
+
+        try {
+            // Don't change the accessibility of the caller's instance
+            Method copy = method.getDeclaringClass().getDeclaredMethod(method.getName(), method.getParameterTypes());
+            copy.setAccessible(true);
+            return copy;
+        } catch (NoSuchMethodException e) {
+            return method;
+        } catch (RuntimeException e) {
+            return method;
+        }
+    }
+
+    static MethodCallable create(ParametricBuilder builder, Object object, Method method, @Nullable MethodInvoker invoker) throws IllegalParameterException {
         checkNotNull(builder, "builder");
         checkNotNull(object, "object");
         checkNotNull(method, "method");
@@ -131,7 +198,11 @@ final class MethodCallable extends AbstractParametricCallable {
 
         Description description = descBuilder.build();
 
-        MethodCallable callable = new MethodCallable(builder, parser, object, method, description, permissions);
+        if (invoker == null) {
+            method = getInvocableMethod(method);
+        }
+
+        MethodCallable callable = new MethodCallable(builder, parser, object, method, invoker, description, permissions);
         callable.setCommandAnnotations(ImmutableList.copyOf(method.getAnnotations()));
         callable.setIgnoreUnusedFlags(ignoreUnusedFlags);
         callable.setUnusedFlags(unusedFlags);
@@ -0,0 +1,42 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+/**
+ * Calls a command method directly, without going through reflection.
+ *
+ * <p>Implementations are normally generated at compile time by the
+ * intake-processor module and bound to the object that the method
+ * is invoked on. Values of primitive parameters are read
+ * from the {@link ParameterValues} without boxing them.</p>
+ *
+ * @see CommandRegistrar
+ */
+public interface MethodInvoker {
+
+    /**
+     * Invoke the method.
+     *
+     * @param values The arguments
+     * @throws Exception Any exception thrown by the method
+     */
+    void invoke(ParameterValues values) throws Exception;
+
+}
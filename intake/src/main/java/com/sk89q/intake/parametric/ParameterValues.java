@@ -0,0 +1,224 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The values parsed for the parameters of a command.
+ *
+ * <p>Values provided through {@link PrimitiveProvider} are stored without
+ * boxing and can be read with the primitive getters. The primitive getters
+ * also unbox values that were stored as objects.</p>
+ */
+public final class ParameterValues {
+
+    private static final Object PRIMITIVE = new Object();
+
+    @Nullable
+    private final Class<?>[] types;
+    private final Object[] objects;
+    @Nullable
+    private final long[] primitives;
+
+    /**
+     * Create a new instance to store values of the given parameter types.
+     *
+     * @param types The parameter types, or null to not store primitives
+     * @param size The number of parameters
+     */
+    ParameterValues(@Nullable Class<?>[] types, int size) {
+        this.types = types;
+        this.objects = new Object[size];
+        this.primitives = types != null ? new long[size] : null;
+    }
+
+    private ParameterValues(Object[] objects) {
+        this.types = null;
+        this.objects = objects;
+        this.primitives = null;
+    }
+
+    /**
+     * Create an instance backed by the given array of values.
+     *
+     * @param values The values
+     * @return The parameter values
+     */
+    public static ParameterValues of(Object[] values) {
+        checkNotNull(values, "values");
+        return new ParameterValues(values);
+    }
+
+    /**
+     * Get the number of values.
+     *
+     * @return The number of values
+     */
+    public int size() {
+        return objects.length;
+    }
+
+    /**
+     * Get a value, boxing it if it is stored as a primitive.
+     *
+     * @param index The index of the parameter
+     * @return The value
+     */
+    @Nullable
+    public Object get(int index) {
+        Object value = objects[index];
+        if (value != PRIMITIVE) {
+            return value;
+        }
+
+        Class<?> type = types[index];
+        long bits = primitives[index];
+        if (type == int.class) {
+            return (int) bits;
+        } else if (type == short.class) {
+            return (short) bits;
+        } else if (type == byte.class) {
+            return (byte) bits;
+        } else if (type == long.class) {
+            return bits;
+        } else if (type == float.class) {
+            return (float) Double.longBitsToDouble(bits);
+        } else {
+            return Double.longBitsToDouble(bits);
+        }
+    }
+
+    /**
+     * Get an {@code int} value.
+     *
+     * @param index The index of the parameter
+     * @return The value
+     */
+    public int getInt(int index) {
+        Object value = objects[index];
+        return value == PRIMITIVE ? (int) primitives[index] : (Integer) value;
+    }
+
+    /**
+     * Get a {@code short} value.
+     *
+     * @param index The index of the parameter
+     * @return The value
+     */
+    public short getShort(int index) {
+        Object value = objects[index];
+        return value == PRIMITIVE ? (short) primitives[index] : (Short) value;
+    }
+
+    /**
+     * Get a {@code byte} value.
+     *
+     * @param index The index of the parameter
+     * @return The value
+     */
+    public byte getByte(int index) {
+        Object value = objects[index];
+        return value == PRIMITIVE ? (byte) primitives[index] : (Byte) value;
+    }
+
+    /**
+     * Get a {@code long} value.
+     *
+     * @param index The index of the parameter
+     * @return The value
+     */
+    public long getLong(int index) {
+        Object value = objects[index];
+        return value == PRIMITIVE ? primitives[index] : (Long) value;
+    }
+
+    /**
+     * Get a {@code double} value.
+     *
+     * @param index The index of the parameter
+     * @return The value
+     */
+    public double getDouble(int index) {
+        Object value = objects[index];
+        return value == PRIMITIVE ? Double.longBitsToDouble(primitives[index]) : (Double) value;
+    }
+
+    /**
+     * Get a {@code float} value.
+     *
+     * @param index The index of the parameter
+     * @return The value
+     */
+    public float getFloat(int index) {
+        Object value = objects[index];
+        return value == PRIMITIVE ? (float) Double.longBitsToDouble(primitives[index]) : (Float) value;
+    }
+
+    /**
+     * Get a {@code boolean} value.
+     *
+     * @param index The index of the parameter
+     * @return The value
+     */
+    public boolean getBoolean(int index) {
+        return (Boolean) objects[index];
+    }
+
+    /**
+     * Get a {@code char} value.
+     *
+     * @param index The index of the parameter
+     * @return The value
+     */
+    public char getChar(int index) {
+        return (Character) objects[index];
+    }
+
+    /**
+     * Get all the values as an array, boxing primitives.
+     *
+     * @return The values
+     */
+    public Object[] toArray() {
+        Object[] values = new Object[objects.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+
+    void set(int index, @Nullable Object value) {
+        objects[index] = value;
+    }
+
+    void setLong(int index, long value) {
+        objects[index] = PRIMITIVE;
+        primitives[index] = value;
+    }
+
+    void setDouble(int index, double value) {
+        objects[index] = PRIMITIVE;
+        primitives[index] = Double.doubleToRawLongBits(value);
+    }
+
+}
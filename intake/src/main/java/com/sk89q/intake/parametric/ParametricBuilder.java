@@ -32,7 +32,9 @@ import com.sk89q.intake.parametric.handler.InvokeHandler;
 import com.sk89q.intake.parametric.handler.InvokeListener;
 import com.sk89q.intake.util.auth.Authorizer;
 import com.sk89q.intake.util.auth.NullAuthorizer;
+import com.sk89q.intake.util.auth.PermissionIndex;
 
+import javax.annotation.Nullable;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -49,6 +51,8 @@ public class ParametricBuilder {
     private final List<InvokeListener> invokeListeners = Lists.newArrayList();
     private final List<ExceptionConverter> exceptionConverters = Lists.newArrayList();
     private Authorizer authorizer = new NullAuthorizer();
+    @Nullable
+    private PermissionIndex permissionIndex;
     private CommandCompleter defaultCompleter = new NullCompleter();
     private CommandExecutor commandExecutor = new CommandExecutorWrapper(MoreExecutors.sameThreadExecutor());
 
@@ -131,6 +135,10 @@ public class ParametricBuilder {
      * Build a list of commands from methods specially annotated with {@link Command}
      * (and other relevant annotations) and register them all with the given
      * {@link Dispatcher}.
+     *
+     * <p>If a {@link CommandRegistrar} was generated for the class of the
+     * object at compile time, it is used instead of scanning the class, and
+     * the commands are invoked without reflection.</p>
      * 
      * @param dispatcher The dispatcher to register commands with
      * @param object The object contain the methods
@@ -140,6 +148,12 @@ public class ParametricBuilder {
         checkNotNull(dispatcher);
         checkNotNull(object);
 
+        CommandRegistrar registrar = getGeneratedRegistrar(object.getClass());
+        if (registrar != null) {
+            registrar.register(this, dispatcher, object);
+            return;
+        }
+
         for (Method method : object.getClass().getDeclaredMethods()) {
             Command definition = method.getAnnotation(Command.class);
             if (definition != null) {
@@ -158,7 +172,55 @@ public class ParametricBuilder {
      * @throws ParametricException Thrown on an error
      */
     public CommandCallable build(Object object, Method method) throws ParametricException {
-        return MethodCallable.create(this, object, method);
+        return MethodCallable.create(this, object, method, null);
+    }
+
+    /**
+     * Build a {@link CommandCallable} for the given method that is invoked
+     * through the given invoker instead of through reflection.
+     *
+     * @param object The object to be invoked on
+     * @param method The method that the invoker calls
+     * @param invoker The invoker
+     * @return The command executor
+     * @throws ParametricException Thrown on an error
+     */
+    public CommandCallable build(Object object, Method method, MethodInvoker invoker) throws ParametricException {
+        checkNotNull(invoker, "invoker");
+        return MethodCallable.create(this, object, method, invoker);
+    }
+
+    /**
+     * Get the registrar generated at compile time for the given class.
+     *
+     * @param type The class
+     * @return The registrar, or null if none was generated
+     * @throws ParametricException Thrown if the registrar could not be created
+     */
+    @Nullable
+    private static CommandRegistrar getGeneratedRegistrar(Class<?> type) throws ParametricException {
+        String name = type.getName();
+        int index = name.lastIndexOf('.') + 1;
+        name = name.substring(0, index) + name.substring(index).replace("$", "$$") + "_IntakeCommands";
+
+        Class<?> registrarClass;
+        try {
+            registrarClass = Class.forName(name, true, type.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+
+        if (!CommandRegistrar.class.isAssignableFrom(registrarClass)) {
+            return null;
+        }
+
+        try {
+            return (CommandRegistrar) registrarClass.newInstance();
+        } catch (InstantiationException e) {
+            throw new IllegalParameterException("Could not create the generated command registrar " + name, e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalParameterException("Could not create the generated command registrar " + name, e);
+        }
     }
 
     /**
@@ -198,6 +260,31 @@ public class ParametricBuilder {
         this.authorizer = authorizer;
     }
 
+    /**
+     * Get the index that permissions of commands are interned in.
+     *
+     * @return The permission index, or null if permissions are not indexed
+     */
+    @Nullable
+    public PermissionIndex getPermissionIndex() {
+        return permissionIndex;
+    }
+
+    /**
+     * Set the index that permissions of commands built afterwards are
+     * interned in.
+     *
+     * <p>If the authorizer is an {@link com.sk89q.intake.util.auth.IndexedAuthorizer}
+     * that returns granted permissions from the same index, commands test
+     * the granted set instead of calling the authorizer for every
+     * permission.</p>
+     *
+     * @param permissionIndex The permission index, or null to not index permissions
+     */
+    public void setPermissionIndex(@Nullable PermissionIndex permissionIndex) {
+        this.permissionIndex = permissionIndex;
+    }
+
     /**
      * Get the default command suggestions provider that will be used if
      * no suggestions are available.
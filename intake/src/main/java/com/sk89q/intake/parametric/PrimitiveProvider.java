@@ -0,0 +1,99 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.CommandArgs;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+/**
+ * Interfaces for {@link Provider}s that can also provide values of
+ * primitive types without boxing them.
+ *
+ * <p>{@link ArgumentParser} uses these methods for parameters with a
+ * matching primitive type, and stores the values in
+ * {@link ParameterValues} without boxing. Unlike {@link Provider#get},
+ * the methods can't return null, so a value that can't be provided
+ * must be reported with an exception.</p>
+ */
+public final class PrimitiveProvider {
+
+    private PrimitiveProvider() {
+    }
+
+    /**
+     * Provides {@code int} values, which are also used for {@code short}
+     * and {@code byte} parameters.
+     */
+    public interface OfInt {
+
+        /**
+         * Provide a value given the arguments.
+         *
+         * @param arguments The arguments
+         * @param modifiers The modifiers on the parameter
+         * @return The value provided
+         * @throws ArgumentException If there is a problem with the argument
+         * @throws ProvisionException If there is a problem with the provider
+         */
+        int getInt(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException, ProvisionException;
+
+    }
+
+    /**
+     * Provides {@code long} values.
+     */
+    public interface OfLong {
+
+        /**
+         * Provide a value given the arguments.
+         *
+         * @param arguments The arguments
+         * @param modifiers The modifiers on the parameter
+         * @return The value provided
+         * @throws ArgumentException If there is a problem with the argument
+         * @throws ProvisionException If there is a problem with the provider
+         */
+        long getLong(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException, ProvisionException;
+
+    }
+
+    /**
+     * Provides {@code double} values, which are also used for {@code float}
+     * parameters.
+     */
+    public interface OfDouble {
+
+        /**
+         * Provide a value given the arguments.
+         *
+         * @param arguments The arguments
+         * @param modifiers The modifiers on the parameter
+         * @return The value provided
+         * @throws ArgumentException If there is a problem with the argument
+         * @throws ProvisionException If there is a problem with the provider
+         */
+        double getDouble(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException, ProvisionException;
+
+    }
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.sk89q.intake.parametric;
+
+/**
+ * Marks a {@link Provider} whose values only depend on the arguments and
+ * the modifiers, and not on the namespace or any other state.
+ *
+ * <p>{@link ArgumentParser} computes the default values and the switch
+ * values of primitive parameters with such providers once, and shares
+ * them between calls. The built-in providers of primitive types are
+ * stateless.</p>
+ */
+public interface StatelessProvider {
+}
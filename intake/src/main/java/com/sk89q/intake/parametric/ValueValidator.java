@@ -0,0 +1,147 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import com.sk89q.intake.argument.ArgumentParseException;
+import com.sk89q.intake.parametric.annotation.Range;
+import com.sk89q.intake.parametric.annotation.Validate;
+
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Checks parsed values against the {@link Range} and {@link Validate}
+ * modifiers of a parameter.
+ *
+ * <p>The modifiers are read and the regular expression is compiled once,
+ * when the parameter is added to an {@link ArgumentParser}. Error messages
+ * are only formatted when a value is rejected.</p>
+ */
+final class ValueValidator {
+
+    private final boolean ranged;
+    private final double min;
+    private final double max;
+    @Nullable
+    private final Pattern pattern;
+
+    private ValueValidator(@Nullable Range range, @Nullable Pattern pattern) {
+        this.ranged = range != null;
+        this.min = range != null ? range.min() : 0;
+        this.max = range != null ? range.max() : 0;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Create a validator for the given modifiers.
+     *
+     * @param modifiers The modifiers of the parameter
+     * @return The validator, or null if the modifiers don't restrict values
+     * @throws IllegalParameterException If a regular expression is invalid
+     */
+    @Nullable
+    static ValueValidator compile(List<? extends Annotation> modifiers) throws IllegalParameterException {
+        Range range = null;
+        Pattern pattern = null;
+
+        for (Annotation modifier : modifiers) {
+            if (modifier instanceof Range) {
+                range = (Range) modifier;
+            } else if (modifier instanceof Validate) {
+                String regex = ((Validate) modifier).regex();
+                if (!regex.isEmpty()) {
+                    try {
+                        pattern = Pattern.compile(regex);
+                    } catch (PatternSyntaxException e) {
+                        throw new IllegalParameterException("The @Validate regex '" + regex + "' is invalid", e);
+                    }
+                }
+            }
+        }
+
+        return range != null || pattern != null ? new ValueValidator(range, pattern) : null;
+    }
+
+    /**
+     * Validate a value.
+     *
+     * <p>Numbers are checked against the range, and character sequences
+     * against the pattern. Other values are accepted.</p>
+     *
+     * @param value The value
+     * @throws ArgumentParseException If the value is rejected
+     */
+    void validate(@Nullable Object value) throws ArgumentParseException {
+        if (value instanceof Number) {
+            if (value instanceof Double || value instanceof Float) {
+                validateDouble(((Number) value).doubleValue());
+            } else {
+                validateLong(((Number) value).longValue());
+            }
+        } else if (value instanceof CharSequence) {
+            validateText((CharSequence) value);
+        }
+    }
+
+    /**
+     * Validate a whole number.
+     *
+     * @param value The value
+     * @throws ArgumentParseException If the value is out of range
+     */
+    void validateLong(long value) throws ArgumentParseException {
+        if (ranged && (value < min || value > max)) {
+            throw outOfRange(value < min, value);
+        }
+    }
+
+    /**
+     * Validate a floating point number.
+     *
+     * @param value The value
+     * @throws ArgumentParseException If the value is out of range
+     */
+    void validateDouble(double value) throws ArgumentParseException {
+        if (ranged && (value < min || value > max)) {
+            throw outOfRange(value < min, value);
+        }
+    }
+
+    private void validateText(CharSequence value) throws ArgumentParseException {
+        if (pattern != null && !pattern.matcher(value).matches()) {
+            throw new ArgumentParseException(
+                    String.format(
+                            "The given text doesn't match the right format (technically speaking, the 'format' is %s)",
+                            pattern.pattern()));
+        }
+    }
+
+    private ArgumentParseException outOfRange(boolean belowMin, Object value) {
+        if (belowMin) {
+            return new ArgumentParseException(String.format("A valid value is greater than or equal to %s (you entered %s)", min, value));
+        } else {
+            return new ArgumentParseException(String.format("A valid value is less than or equal to %s (you entered %s)", max, value));
+        }
+    }
+
+}
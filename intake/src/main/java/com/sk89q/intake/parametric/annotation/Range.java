@@ -19,7 +19,7 @@
 
 package com.sk89q.intake.parametric.annotation;
 
-import com.sk89q.intake.parametric.provider.PrimitivesModule;
+import com.sk89q.intake.parametric.ArgumentParser;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -29,7 +29,7 @@ import java.lang.annotation.Target;
 /**
  * Specifies a range of values for numbers.
  * 
- * @see PrimitivesModule a user of this annotation as a modifier
+ * @see ArgumentParser where parsed numbers are checked against the range
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ ElementType.PARAMETER, ElementType.FIELD })
@@ -19,7 +19,7 @@
 
 package com.sk89q.intake.parametric.annotation;
 
-import com.sk89q.intake.parametric.provider.PrimitivesModule;
+import com.sk89q.intake.parametric.ArgumentParser;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -30,7 +30,7 @@ import java.util.regex.Pattern;
 /**
  * Used to validate a string.
  *
- * @see PrimitivesModule Where this validation is used
+ * @see ArgumentParser Where this validation is used
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ ElementType.PARAMETER, ElementType.FIELD })
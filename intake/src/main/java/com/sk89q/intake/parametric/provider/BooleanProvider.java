@@ -21,14 +21,16 @@ package com.sk89q.intake.parametric.provider;
 
 import com.sk89q.intake.argument.ArgumentException;
 import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.parametric.ConsumingProvider;
 import com.sk89q.intake.parametric.Provider;
+import com.sk89q.intake.parametric.StatelessProvider;
 
 import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.util.Collections;
 import java.util.List;
 
-class BooleanProvider implements Provider<Boolean> {
+class BooleanProvider implements Provider<Boolean>, StatelessProvider, ConsumingProvider {
 
     static final BooleanProvider INSTANCE = new BooleanProvider();
 
@@ -0,0 +1,57 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric.provider;
+
+import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.Arguments;
+import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.parametric.ConsumingProvider;
+import com.sk89q.intake.parametric.Provider;
+
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Provides arguments as sequences of characters that may be views of
+ * the input, for parameters that don't need a {@link String}.
+ */
+class CharSequenceProvider implements Provider<CharSequence>, ConsumingProvider {
+
+    static final CharSequenceProvider INSTANCE = new CharSequenceProvider();
+
+    @Override
+    public boolean isProvided() {
+        return false;
+    }
+
+    @Nullable
+    @Override
+    public CharSequence get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        return Arguments.nextSequence(arguments);
+    }
+
+    @Override
+    public List<String> getSuggestions(String prefix) {
+        return Collections.emptyList();
+    }
+
+}
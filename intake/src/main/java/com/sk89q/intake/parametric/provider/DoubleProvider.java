@@ -20,24 +20,33 @@
 package com.sk89q.intake.parametric.provider;
 
 import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.Arguments;
 import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.NumberScanner;
+import com.sk89q.intake.parametric.PrimitiveProvider;
 
 import java.lang.annotation.Annotation;
 import java.util.List;
 
-class DoubleProvider extends NumberProvider<Double> {
+class DoubleProvider extends NumberProvider<Double> implements PrimitiveProvider.OfDouble {
 
     static final DoubleProvider INSTANCE = new DoubleProvider();
 
     @Override
     public Double get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
-        Double v = parseNumericInput(arguments.next());
-        if (v != null) {
-            validate(v, modifiers);
-            return v;
+        NumberScanner scanner = Arguments.getScanner(arguments);
+        if (scanNumericInput(scanner, Arguments.nextSequence(arguments), modifiers)) {
+            return scanner.getDouble();
         } else {
             return null;
         }
     }
 
+    @Override
+    public double getDouble(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        NumberScanner scanner = Arguments.getScanner(arguments);
+        scanRequiredNumericInput(scanner, Arguments.nextSequence(arguments), modifiers);
+        return scanner.getDouble();
+    }
+
 }
@@ -19,17 +19,25 @@
 
 package com.sk89q.intake.parametric.provider;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
 import com.sk89q.intake.argument.ArgumentException;
 import com.sk89q.intake.argument.ArgumentParseException;
 import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.parametric.ConsumingProvider;
 import com.sk89q.intake.parametric.Provider;
 import com.sk89q.intake.parametric.ProvisionException;
 
 import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -39,22 +47,42 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * <p>When comparing for a match, both the search and test entry have
  * non-alphanumeric characters stripped.</p>
  *
+ * <p>The simplified names of the constants are indexed once per enum
+ * class, and the index is shared by all providers for that class.</p>
+ *
  * @param <T> The type of the enum
  */
-public class EnumProvider<T extends Enum<T>> implements Provider<T> {
+public class EnumProvider<T extends Enum<T>> implements Provider<T>, ConsumingProvider {
 
-    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^A-Za-z0-9]");
+    /**
+     * Indexes by enum class. Both keys and values are weak: the index
+     * refers to the constants and therefore to the class, and providers
+     * keep their own index alive.
+     */
+    private static final LoadingCache<Class<?>, Index<?>> INDEXES = CacheBuilder.newBuilder()
+            .weakKeys()
+            .weakValues()
+            .build(new CacheLoader<Class<?>, Index<?>>() {
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                @Override
+                public Index<?> load(Class<?> key) {
+                    return new Index(key);
+                }
+            });
 
     private final Class<T> enumClass;
+    private final Index<T> index;
 
     /**
      * Create a new instance.
      *
      * @param enumClass The enum for the class
      */
+    @SuppressWarnings("unchecked")
     public EnumProvider(Class<T> enumClass) {
         checkNotNull(enumClass, "enumClass");
         this.enumClass = enumClass;
+        this.index = (Index<T>) INDEXES.getUnchecked(enumClass);
     }
 
     @Override
@@ -66,33 +94,125 @@ public class EnumProvider<T extends Enum<T>> implements Provider<T> {
     @Override
     public T get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException, ProvisionException {
         String name = arguments.next();
-        String test = simplify(name);
+        T entry = index.byName.get(simplify(name));
 
-        for (T entry : enumClass.getEnumConstants()) {
-            if (simplify(entry.name()).equalsIgnoreCase(test)) {
-                return entry;
-            }
+        if (entry != null) {
+            return entry;
         }
 
         throw new ArgumentParseException("No matching value found in the '" + enumClass.getSimpleName() + "' list.");
     }
 
+    /**
+     * Get the names of the constants whose simplified name starts with
+     * the simplified prefix, in the order of their simplified names.
+     *
+     * @param prefix The prefix
+     * @return A list of suggestions
+     */
     @Override
     public List<String> getSuggestions(String prefix) {
-        List<String> suggestions = Lists.newArrayList();
         String test = simplify(prefix);
-
-        for (T entry : enumClass.getEnumConstants()) {
-            String name = simplify(entry.name());
-            if (name.startsWith(test)) {
-                suggestions.add(entry.name().toLowerCase());
+        String[] keys = index.sortedKeys;
+
+        int start = Arrays.binarySearch(keys, test);
+        if (start < 0) {
+            start = -start - 1;
+        } else {
+            // Keys can repeat, so find the first
+            while (start > 0 && keys[start - 1].equals(test)) {
+                start--;
             }
         }
 
+        int end = start;
+        while (end < keys.length && keys[end].startsWith(test)) {
+            end++;
+        }
+
+        if (start == end) {
+            return Collections.emptyList();
+        }
+
+        List<String> suggestions = Lists.newArrayListWithCapacity(end - start);
+        suggestions.addAll(Arrays.asList(index.sortedSuggestions).subList(start, end));
         return suggestions;
     }
 
+    /**
+     * Lower case the given text and strip characters other than ASCII
+     * letters and digits.
+     *
+     * @param t The text
+     * @return The simplified text
+     */
     private static String simplify(String t) {
-        return NON_ALPHANUMERIC.matcher(t.toLowerCase()).replaceAll("");
+        String lower = t.toLowerCase();
+        int length = lower.length();
+
+        int i = 0;
+        while (i < length && isSimple(lower.charAt(i))) {
+            i++;
+        }
+
+        if (i == length) {
+            return lower;
+        }
+
+        StringBuilder builder = new StringBuilder(length - 1);
+        builder.append(lower, 0, i);
+        for (; i < length; i++) {
+            char c = lower.charAt(i);
+            if (isSimple(c)) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
     }
+
+    private static boolean isSimple(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * The constants of an enum, indexed by their simplified names.
+     *
+     * @param <T> The type of the enum
+     */
+    private static final class Index<T extends Enum<T>> {
+        private final Map<String, T> byName;
+        private final String[] sortedKeys;
+        private final String[] sortedSuggestions;
+
+        private Index(Class<T> enumClass) {
+            T[] constants = enumClass.getEnumConstants();
+            checkNotNull(constants, "Not an enum: " + enumClass.getName());
+
+            Map<String, T> byName = new HashMap<String, T>();
+            String[][] entries = new String[constants.length][];
+            for (int i = 0; i < constants.length; i++) {
+                String key = simplify(constants[i].name());
+                if (!byName.containsKey(key)) {
+                    byName.put(key, constants[i]); // The first constant wins
+                }
+                entries[i] = new String[] { key, constants[i].name().toLowerCase() };
+            }
+
+            Arrays.sort(entries, new Comparator<String[]>() {
+                @Override
+                public int compare(String[] o1, String[] o2) {
+                    return o1[0].compareTo(o2[0]);
+                }
+            });
+
+            this.byName = byName;
+            this.sortedKeys = new String[entries.length];
+            this.sortedSuggestions = new String[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                sortedKeys[i] = entries[i][0];
+                sortedSuggestions[i] = entries[i][1];
+            }
+        }
+    }
+
 }
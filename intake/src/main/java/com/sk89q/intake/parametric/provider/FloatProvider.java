@@ -20,26 +20,37 @@
 package com.sk89q.intake.parametric.provider;
 
 import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.Arguments;
 import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.NumberScanner;
+import com.sk89q.intake.parametric.PrimitiveProvider;
 
 import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.util.List;
 
-class FloatProvider extends NumberProvider<Float> {
+class FloatProvider extends NumberProvider<Float> implements PrimitiveProvider.OfDouble {
 
     static final FloatProvider INSTANCE = new FloatProvider();
 
     @Nullable
     @Override
     public Float get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
-        Double v = parseNumericInput(arguments.next());
-        if (v != null) {
-            validate(v, modifiers);
-            return v.floatValue();
+        NumberScanner scanner = Arguments.getScanner(arguments);
+        if (scanNumericInput(scanner, Arguments.nextSequence(arguments), modifiers)) {
+            double v = scanner.getDouble();
+            return (float) v;
         } else {
             return null;
         }
     }
 
+    @Override
+    public double getDouble(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        NumberScanner scanner = Arguments.getScanner(arguments);
+        scanRequiredNumericInput(scanner, Arguments.nextSequence(arguments), modifiers);
+        double v = scanner.getDouble();
+        return (float) v;
+    }
+
 }
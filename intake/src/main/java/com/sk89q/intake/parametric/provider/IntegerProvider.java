@@ -20,25 +20,33 @@
 package com.sk89q.intake.parametric.provider;
 
 import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.Arguments;
 import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.NumberScanner;
+import com.sk89q.intake.parametric.PrimitiveProvider;
 
 import java.lang.annotation.Annotation;
 import java.util.List;
 
-class IntegerProvider extends NumberProvider<Integer> {
+class IntegerProvider extends NumberProvider<Integer> implements PrimitiveProvider.OfInt {
 
     static final IntegerProvider INSTANCE = new IntegerProvider();
 
     @Override
     public Integer get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
-        Double v = parseNumericInput(arguments.next());
-        if (v != null) {
-            int intValue = v.intValue();
-            validate(intValue, modifiers);
-            return intValue;
+        NumberScanner scanner = Arguments.getScanner(arguments);
+        if (scanIntegerInput(scanner, Arguments.nextSequence(arguments), modifiers, Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+            return scanner.getInt();
         } else {
             return null;
         }
     }
 
+    @Override
+    public int getInt(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        NumberScanner scanner = Arguments.getScanner(arguments);
+        scanRequiredIntegerInput(scanner, Arguments.nextSequence(arguments), modifiers, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return scanner.getInt();
+    }
+
 }
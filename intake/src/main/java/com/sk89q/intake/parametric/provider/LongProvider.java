@@ -0,0 +1,72 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric.provider;
+
+import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.ArgumentParseException;
+import com.sk89q.intake.argument.Arguments;
+import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.NumberScanner;
+import com.sk89q.intake.parametric.PrimitiveProvider;
+
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+/**
+ * Provides whole numbers, which are parsed exactly rather than
+ * through a double.
+ */
+class LongProvider extends NumberProvider<Long> implements PrimitiveProvider.OfLong {
+
+    static final LongProvider INSTANCE = new LongProvider();
+
+    @Nullable
+    @Override
+    public Long get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        NumberScanner scanner = Arguments.getScanner(arguments);
+        if (scanLong(scanner, Arguments.nextSequence(arguments), modifiers)) {
+            return scanner.getLong();
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public long getLong(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        NumberScanner scanner = Arguments.getScanner(arguments);
+        CharSequence input = Arguments.nextSequence(arguments);
+        if (!scanLong(scanner, input, modifiers)) {
+            throw new ArgumentParseException("Expected '" + input + "' to be a number");
+        }
+        return scanner.getLong();
+    }
+
+    private static boolean scanLong(NumberScanner scanner, CharSequence input, List<? extends Annotation> modifiers) throws ArgumentParseException {
+        int status = scanner.scanLong(input, 0, input.length(), getUnits(modifiers));
+        if (status == NumberScanner.EMPTY) {
+            return false;
+        } else if (status != NumberScanner.OK) {
+            throw new ArgumentParseException("Expected '" + input + "' to be a whole number");
+        }
+        return true;
+    }
+
+}
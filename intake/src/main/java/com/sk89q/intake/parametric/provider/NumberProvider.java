@@ -20,15 +20,17 @@
 package com.sk89q.intake.parametric.provider;
 
 import com.sk89q.intake.argument.ArgumentParseException;
+import com.sk89q.intake.argument.NumberScanner;
+import com.sk89q.intake.parametric.ConsumingProvider;
 import com.sk89q.intake.parametric.Provider;
-import com.sk89q.intake.parametric.annotation.Range;
+import com.sk89q.intake.parametric.StatelessProvider;
+import com.sk89q.intake.parametric.annotation.Unit;
 
-import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.util.Collections;
 import java.util.List;
 
-abstract class NumberProvider<T extends Number> implements Provider<T> {
+abstract class NumberProvider<T extends Number> implements Provider<T>, StatelessProvider, ConsumingProvider {
 
     @Override
     public boolean isProvided() {
@@ -41,62 +43,93 @@ abstract class NumberProvider<T extends Number> implements Provider<T> {
     }
 
     /**
-     * Try to parse numeric input as either a number or a mathematical expression.
+     * Get the units given by a {@link Unit} modifier.
      *
+     * @param modifiers the list of modifiers to scan
+     * @return the units, or {@link NumberScanner.Units#NONE}
+     */
+    protected static NumberScanner.Units getUnits(List<? extends Annotation> modifiers) {
+        NumberScanner.Units units = NumberScanner.Units.NONE;
+        for (Annotation modifier : modifiers) {
+            if (modifier instanceof Unit) {
+                units = ((Unit) modifier).value();
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Parse numeric input with the given scanner, accepting the units given
+     * by a {@link Unit} modifier.
+     *
+     * @param scanner the scanner that receives the value
      * @param input input
-     * @return a number
+     * @param modifiers the list of modifiers to scan
+     * @return false if the input was empty
      * @throws ArgumentParseException thrown on parse error
      */
-    @Nullable
-    protected static Double parseNumericInput(@Nullable String input) throws ArgumentParseException {
-        if (input == null || input.equals("")) {
-            return null;
+    protected static boolean scanNumericInput(NumberScanner scanner, CharSequence input, List<? extends Annotation> modifiers) throws ArgumentParseException {
+        int status = scanner.scanDouble(input, 0, input.length(), getUnits(modifiers));
+        if (status == NumberScanner.EMPTY) {
+            return false;
+        } else if (status != NumberScanner.OK) {
+            throw new ArgumentParseException("Expected '" + input + "' to be a number");
         }
+        return true;
+    }
 
-        try {
-            return Double.parseDouble(input);
-        } catch (NumberFormatException ignored) {
-            throw new ArgumentParseException(String.format("Expected '%s' to be a number", input));
+    /**
+     * Parse a whole number in the given range with the given scanner,
+     * accepting the units given by a {@link Unit} modifier.
+     *
+     * @param scanner the scanner that receives the value
+     * @param input input
+     * @param modifiers the list of modifiers to scan
+     * @param min the smallest accepted value
+     * @param max the largest accepted value
+     * @return false if the input was empty
+     * @throws ArgumentParseException thrown on parse error or if the value is out of range
+     */
+    protected static boolean scanIntegerInput(NumberScanner scanner, CharSequence input, List<? extends Annotation> modifiers, int min, int max) throws ArgumentParseException {
+        int status = scanner.scanInt(input, 0, input.length(), getUnits(modifiers));
+        if (status == NumberScanner.EMPTY) {
+            return false;
+        } else if (status != NumberScanner.OK || scanner.getInt() < min || scanner.getInt() > max) {
+            throw new ArgumentParseException("Expected '" + input + "' to be a whole number");
         }
+        return true;
     }
 
     /**
-     * Validate a number value using relevant modifiers.
+     * Parse a whole number in the given range with the given scanner,
+     * accepting the units given by a {@link Unit} modifier, for a value
+     * that can't be null.
      *
-     * @param number the number
+     * @param scanner the scanner that receives the value
+     * @param input input
      * @param modifiers the list of modifiers to scan
-     * @throws ArgumentParseException on a validation error
+     * @param min the smallest accepted value
+     * @param max the largest accepted value
+     * @throws ArgumentParseException thrown on parse error, empty input or if the value is out of range
      */
-    protected static void validate(double number, List<? extends Annotation> modifiers) throws ArgumentParseException {
-        for (Annotation modifier : modifiers) {
-            if (modifier instanceof Range) {
-                Range range = (Range) modifier;
-                if (number < range.min()) {
-                    throw new ArgumentParseException(String.format("A valid value is greater than or equal to %s (you entered %s)", range.min(), number));
-                } else if (number > range.max()) {
-                    throw new ArgumentParseException(String.format("A valid value is less than or equal to %s (you entered %s)", range.max(), number));
-                }
-            }
+    protected static void scanRequiredIntegerInput(NumberScanner scanner, CharSequence input, List<? extends Annotation> modifiers, int min, int max) throws ArgumentParseException {
+        if (!scanIntegerInput(scanner, input, modifiers, min, max)) {
+            throw new ArgumentParseException("Expected '" + input + "' to be a number");
         }
     }
 
     /**
-     * Validate a number value using relevant modifiers.
+     * Parse numeric input with the given scanner, accepting the units given
+     * by a {@link Unit} modifier, for a value that can't be null.
      *
-     * @param number the number
+     * @param scanner the scanner that receives the value
+     * @param input input
      * @param modifiers the list of modifiers to scan
-     * @throws ArgumentParseException on a validation error
+     * @throws ArgumentParseException thrown on parse error or empty input
      */
-    protected static void validate(int number, List<? extends Annotation> modifiers) throws ArgumentParseException {
-        for (Annotation modifier : modifiers) {
-            if (modifier instanceof Range) {
-                Range range = (Range) modifier;
-                if (number < range.min()) {
-                    throw new ArgumentParseException(String.format("A valid value is greater than or equal to %s (you entered %s)", range.min(), number));
-                } else if (number > range.max()) {
-                    throw new ArgumentParseException(String.format("A valid value is less than or equal to %s (you entered %s)", range.max(), number));
-                }
-            }
+    protected static void scanRequiredNumericInput(NumberScanner scanner, CharSequence input, List<? extends Annotation> modifiers) throws ArgumentParseException {
+        if (!scanNumericInput(scanner, input, modifiers)) {
+            throw new ArgumentParseException("Expected '" + input + "' to be a number");
         }
     }
 
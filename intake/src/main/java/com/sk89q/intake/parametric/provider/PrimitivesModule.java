@@ -35,12 +35,16 @@ public final class PrimitivesModule extends AbstractModule {
         bind(int.class).toProvider(IntegerProvider.INSTANCE);
         bind(Short.class).toProvider(ShortProvider.INSTANCE);
         bind(short.class).toProvider(ShortProvider.INSTANCE);
+        bind(Long.class).toProvider(LongProvider.INSTANCE);
+        bind(long.class).toProvider(LongProvider.INSTANCE);
         bind(Double.class).toProvider(DoubleProvider.INSTANCE);
         bind(double.class).toProvider(DoubleProvider.INSTANCE);
         bind(Float.class).toProvider(FloatProvider.INSTANCE);
         bind(float.class).toProvider(FloatProvider.INSTANCE);
         bind(String.class).toProvider(StringProvider.INSTANCE);
         bind(String.class).annotatedWith(Text.class).toProvider(TextProvider.INSTANCE);
+        bind(CharSequence.class).toProvider(CharSequenceProvider.INSTANCE);
+        bind(CharSequence.class).annotatedWith(Text.class).toProvider(TextSequenceProvider.INSTANCE);
     }
 
 }
\ No newline at end of file
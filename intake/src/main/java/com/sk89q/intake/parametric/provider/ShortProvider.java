@@ -20,25 +20,33 @@
 package com.sk89q.intake.parametric.provider;
 
 import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.Arguments;
 import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.NumberScanner;
+import com.sk89q.intake.parametric.PrimitiveProvider;
 
 import java.lang.annotation.Annotation;
 import java.util.List;
 
-class ShortProvider extends NumberProvider<Short> {
+class ShortProvider extends NumberProvider<Short> implements PrimitiveProvider.OfInt {
 
     static final ShortProvider INSTANCE = new ShortProvider();
 
     @Override
     public Short get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
-        Double v = parseNumericInput(arguments.next());
-        if (v != null) {
-            short shortValue = v.shortValue();
-            validate(shortValue, modifiers);
-            return shortValue;
+        NumberScanner scanner = Arguments.getScanner(arguments);
+        if (scanIntegerInput(scanner, Arguments.nextSequence(arguments), modifiers, Short.MIN_VALUE, Short.MAX_VALUE)) {
+            return (short) scanner.getInt();
         } else {
             return null;
         }
     }
 
+    @Override
+    public int getInt(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        NumberScanner scanner = Arguments.getScanner(arguments);
+        scanRequiredIntegerInput(scanner, Arguments.nextSequence(arguments), modifiers, Short.MIN_VALUE, Short.MAX_VALUE);
+        return scanner.getInt();
+    }
+
 }
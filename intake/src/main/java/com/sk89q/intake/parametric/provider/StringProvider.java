@@ -20,17 +20,16 @@
 package com.sk89q.intake.parametric.provider;
 
 import com.sk89q.intake.argument.ArgumentException;
-import com.sk89q.intake.argument.ArgumentParseException;
 import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.parametric.ConsumingProvider;
 import com.sk89q.intake.parametric.Provider;
-import com.sk89q.intake.parametric.annotation.Validate;
 
 import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.util.Collections;
 import java.util.List;
 
-class StringProvider implements Provider<String> {
+class StringProvider implements Provider<String>, ConsumingProvider {
 
     static final StringProvider INSTANCE = new StringProvider();
 
@@ -42,9 +41,7 @@ class StringProvider implements Provider<String> {
     @Nullable
     @Override
     public String get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
-        String v = arguments.next();
-        validate(v, modifiers);
-        return v;
+        return arguments.next();
     }
 
     @Override
@@ -52,32 +49,4 @@ class StringProvider implements Provider<String> {
         return Collections.emptyList();
     }
 
-    /**
-     * Validate a string value using relevant modifiers.
-     *
-     * @param string the string
-     * @param modifiers the list of modifiers to scan
-     * @throws ArgumentParseException on a validation error
-     */
-    protected static void validate(String string, List<? extends Annotation> modifiers) throws ArgumentParseException {
-        if (string == null) {
-            return;
-        }
-
-        for (Annotation modifier : modifiers) {
-            if (modifier instanceof Validate) {
-                Validate validate = (Validate) modifier;
-
-                if (!validate.regex().isEmpty()) {
-                    if (!string.matches(validate.regex())) {
-                        throw new ArgumentParseException(
-                                String.format(
-                                        "The given text doesn't match the right format (technically speaking, the 'format' is %s)",
-                                        validate.regex()));
-                    }
-                }
-            }
-        }
-    }
-
 }
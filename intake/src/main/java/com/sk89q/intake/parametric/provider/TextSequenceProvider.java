@@ -0,0 +1,45 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric.provider;
+
+import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.Arguments;
+import com.sk89q.intake.argument.CommandArgs;
+
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+/**
+ * Provides the remaining arguments as one sequence of characters, which
+ * is a slice of the input rather than a copy when the arguments are
+ * separated by single spaces.
+ */
+class TextSequenceProvider extends CharSequenceProvider {
+
+    static final TextSequenceProvider INSTANCE = new TextSequenceProvider();
+
+    @Nullable
+    @Override
+    public CharSequence get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        return Arguments.remainingSequence(arguments);
+    }
+
+}
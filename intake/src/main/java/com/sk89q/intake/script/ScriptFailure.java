@@ -0,0 +1,73 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.script;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A line of a script that failed to execute.
+ */
+public final class ScriptFailure {
+
+    private final long lineNumber;
+    private final String line;
+    private final Exception cause;
+
+    ScriptFailure(long lineNumber, String line, Exception cause) {
+        checkNotNull(line, "line");
+        checkNotNull(cause, "cause");
+        this.lineNumber = lineNumber;
+        this.line = line;
+        this.cause = cause;
+    }
+
+    /**
+     * Get the number of the line in the script, starting from 1.
+     *
+     * @return The line number
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Get the command that was executed.
+     *
+     * @return The command
+     */
+    public String getLine() {
+        return line;
+    }
+
+    /**
+     * Get the exception that was thrown by the command.
+     *
+     * @return The exception
+     */
+    public Exception getCause() {
+        return cause;
+    }
+
+    @Override
+    public String toString() {
+        return "Line " + lineNumber + " (" + line + "): " + cause;
+    }
+
+}
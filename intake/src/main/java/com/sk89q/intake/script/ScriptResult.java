@@ -0,0 +1,99 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.script;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of running a script with {@link ScriptRunner}.
+ */
+public final class ScriptResult {
+
+    private final long lineCount;
+    private final long commandCount;
+    private final List<ScriptFailure> failures;
+    private final long elapsedNanos;
+
+    ScriptResult(long lineCount, long commandCount, List<ScriptFailure> failures, long elapsedNanos) {
+        this.lineCount = lineCount;
+        this.commandCount = commandCount;
+        this.failures = ImmutableList.copyOf(failures);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Get the number of lines that were read, including blank lines
+     * and comments.
+     *
+     * @return The number of lines
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Get the number of commands that were executed, including those
+     * that failed.
+     *
+     * @return The number of commands
+     */
+    public long getCommandCount() {
+        return commandCount;
+    }
+
+    /**
+     * Get the commands that failed, in the order that they appear in
+     * the script.
+     *
+     * @return The list of failures
+     */
+    public List<ScriptFailure> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Get the time taken to run the script.
+     *
+     * @param unit The unit to return the time in
+     * @return The elapsed time
+     */
+    public long getElapsedTime(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the average number of commands that were executed per second.
+     *
+     * @return The throughput
+     */
+    public double getCommandsPerSecond() {
+        return elapsedNanos > 0 ? commandCount * 1e9 / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d commands (%d failed) in %d ms (%.0f commands/s)",
+                commandCount, failures.size(), getElapsedTime(TimeUnit.MILLISECONDS), getCommandsPerSecond());
+    }
+
+}
@@ -0,0 +1,467 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.script;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.util.auth.PermissionMemo;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Executes every line of a script as a command.
+ *
+ * <p>Scripts are decoded as they are read, so they are never loaded into
+ * memory as a whole. Each line is passed to the command, usually a
+ * {@link com.sk89q.intake.dispatcher.Dispatcher}, along with a namespace
+ * that is shared by every line. A line that fails is recorded in the
+ * {@link ScriptResult} and execution continues with the next line.</p>
+ *
+ * <p>Leading whitespace and byte order marks are ignored, as are blank
+ * lines and lines that start with {@code #}. The lines between
+ * {@code #parallel} and {@code #end} are taken to be independent of each
+ * other and, if an executor has been set, are executed concurrently. Each
+ * of them receives its own copy of the namespace, without any
+ * {@link PermissionMemo}, and all of them finish before the line after
+ * {@code #end} is executed.</p>
+ *
+ * <p>Every run uses the same namespace, and commands write into it, so
+ * a runner must only run one script at a time. Use a runner for each
+ * script to run several scripts at once.</p>
+ */
+public final class ScriptRunner {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final long MAP_SIZE = 64L * 1024 * 1024;
+    private static final String PARALLEL_DIRECTIVE = "#parallel";
+    private static final String END_DIRECTIVE = "#end";
+
+    private final CommandCallable callable;
+    private final Namespace namespace;
+    private final List<String> parentCommands;
+    private final Charset charset;
+    @Nullable
+    private final ExecutorService executor;
+    private final int maxBatchSize;
+
+    private ScriptRunner(Builder builder) {
+        this.callable = builder.callable;
+        this.namespace = builder.namespace;
+        this.parentCommands = builder.parentCommands;
+        this.charset = builder.charset;
+        this.executor = builder.executor;
+        this.maxBatchSize = builder.maxBatchSize;
+    }
+
+    /**
+     * Run the script in the given file.
+     *
+     * <p>The file is memory-mapped a section at a time rather than read
+     * through a buffer.</p>
+     *
+     * @param file The file
+     * @return The result
+     * @throws IOException Thrown if the file can't be read, or if the
+     *     thread is interrupted while waiting for commands to finish
+     */
+    public ScriptResult run(File file) throws IOException {
+        checkNotNull(file, "file");
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            Execution execution = new Execution();
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                long length = Math.min(MAP_SIZE, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                execution.decode(bytes, last);
+                // A character split between sections is decoded with the next section
+                position += last ? length : bytes.position();
+            }
+
+            return execution.finish();
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Run the script that is read from the given channel, which must be
+     * in blocking mode. The channel is not closed.
+     *
+     * @param channel The channel
+     * @return The result
+     * @throws IOException Thrown if the channel can't be read, or if the
+     *     thread is interrupted while waiting for commands to finish
+     */
+    public ScriptResult run(ReadableByteChannel channel) throws IOException {
+        checkNotNull(channel, "channel");
+        Execution execution = new Execution();
+        ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+
+        while (channel.read(bytes) != -1) {
+            bytes.flip();
+            execution.decode(bytes, false);
+            bytes.compact();
+        }
+
+        bytes.flip();
+        execution.decode(bytes, true);
+        return execution.finish();
+    }
+
+    @Nullable
+    private ScriptFailure execute(long lineNumber, String line, Namespace namespace) {
+        try {
+            callable.call(line, namespace, parentCommands);
+            return null;
+        } catch (Exception e) {
+            return new ScriptFailure(lineNumber, line, e);
+        }
+    }
+
+    /**
+     * The state of a single run of a script. The buffers are reused for
+     * every line.
+     */
+    private final class Execution {
+        private final long startTime = System.nanoTime();
+        private final CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        private final StringBuilder line = new StringBuilder();
+        private final List<ScriptFailure> failures = new ArrayList<ScriptFailure>();
+        private final List<Future<ScriptFailure>> pending = new ArrayList<Future<ScriptFailure>>();
+        private long lineCount;
+        private long commandCount;
+        private boolean parallel;
+
+        void decode(ByteBuffer bytes, boolean endOfInput) throws IOException {
+            while (true) {
+                CoderResult result = decoder.decode(bytes, chars, endOfInput);
+                drain();
+                if (result.isUnderflow()) {
+                    break;
+                }
+            }
+        }
+
+        ScriptResult finish() throws IOException {
+            decode(ByteBuffer.allocate(0), true);
+            while (decoder.flush(chars).isOverflow()) {
+                drain();
+            }
+            drain();
+
+            if (line.length() > 0) {
+                endLine();
+            }
+
+            awaitBatch();
+            return new ScriptResult(lineCount, commandCount, failures, System.nanoTime() - startTime);
+        }
+
+        private void drain() throws IOException {
+            char[] array = chars.array();
+            int end = chars.position();
+            int start = 0;
+
+            for (int i = 0; i < end; i++) {
+                if (array[i] == '\n') {
+                    line.append(array, start, i - start);
+                    endLine();
+                    start = i + 1;
+                }
+            }
+
+            line.append(array, start, end - start);
+            chars.clear();
+        }
+
+        private void endLine() throws IOException {
+            lineCount++;
+
+            int end = line.length();
+            if (end > 0 && line.charAt(end - 1) == '\r') {
+                end--;
+            }
+
+            int start = 0;
+            while (start < end && (Character.isWhitespace(line.charAt(start)) || line.charAt(start) == '\uFEFF')) {
+                start++;
+            }
+
+            if (start < end) {
+                if (line.charAt(start) == '#') {
+                    directive(line.substring(start, end).trim());
+                } else {
+                    submit(lineCount, line.substring(start, end));
+                }
+            }
+
+            line.setLength(0);
+        }
+
+        private void directive(String comment) throws IOException {
+            if (comment.equalsIgnoreCase(PARALLEL_DIRECTIVE)) {
+                parallel = true;
+            } else if (comment.equalsIgnoreCase(END_DIRECTIVE)) {
+                awaitBatch();
+                parallel = false;
+            }
+        }
+
+        private void submit(final long lineNumber, final String command) throws IOException {
+            commandCount++;
+
+            if (parallel && executor != null) {
+                final Namespace copy = new Namespace(namespace);
+                // The memo is not thread-safe, so each line starts its own
+                PermissionMemo.uninstall(copy);
+                pending.add(executor.submit(new Callable<ScriptFailure>() {
+                    @Override
+                    public ScriptFailure call() {
+                        return execute(lineNumber, command, copy);
+                    }
+                }));
+
+                if (pending.size() >= maxBatchSize) {
+                    awaitBatch();
+                }
+            } else {
+                ScriptFailure failure = execute(lineNumber, command, namespace);
+                if (failure != null) {
+                    failures.add(failure);
+                }
+            }
+        }
+
+        private void awaitBatch() throws IOException {
+            try {
+                for (Future<ScriptFailure> future : pending) {
+                    ScriptFailure failure = future.get();
+                    if (failure != null) {
+                        failures.add(failure);
+                    }
+                }
+            } catch (InterruptedException e) {
+                for (Future<ScriptFailure> future : pending) {
+                    future.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for commands to finish");
+            } catch (ExecutionException e) {
+                throw Throwables.propagate(e.getCause());
+            } finally {
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * Builds instances of {@link ScriptRunner}.
+     *
+     * <p>By default, scripts are decoded as UTF-8, commands are executed
+     * in a new namespace with no parent commands and lines are never
+     * executed concurrently.</p>
+     */
+    public static class Builder {
+        @Nullable
+        private CommandCallable callable;
+        private Namespace namespace = new Namespace();
+        private List<String> parentCommands = ImmutableList.of();
+        private Charset charset = Charsets.UTF_8;
+        @Nullable
+        private ExecutorService executor;
+        private int maxBatchSize = 1024;
+
+        /**
+         * Get the command that every line is passed to.
+         *
+         * @return The command
+         */
+        @Nullable
+        public CommandCallable getCallable() {
+            return callable;
+        }
+
+        /**
+         * Set the command that every line is passed to.
+         *
+         * @param callable The command
+         * @return The builder
+         */
+        public Builder setCallable(CommandCallable callable) {
+            checkNotNull(callable, "callable");
+            this.callable = callable;
+            return this;
+        }
+
+        /**
+         * Get the namespace that is shared by every line.
+         *
+         * @return The namespace
+         */
+        public Namespace getNamespace() {
+            return namespace;
+        }
+
+        /**
+         * Set the namespace that is shared by every line.
+         *
+         * <p>The namespace is not thread-safe, so the runner that is built
+         * must not run several scripts at once.</p>
+         *
+         * @param namespace The namespace
+         * @return The builder
+         */
+        public Builder setNamespace(Namespace namespace) {
+            checkNotNull(namespace, "namespace");
+            this.namespace = namespace;
+            return this;
+        }
+
+        /**
+         * Get the list of parent commands that is passed with every line.
+         *
+         * @return The list of parent commands
+         */
+        public List<String> getParentCommands() {
+            return parentCommands;
+        }
+
+        /**
+         * Set the list of parent commands that is passed with every line.
+         *
+         * @param parentCommands The list of parent commands
+         * @return The builder
+         */
+        public Builder setParentCommands(List<String> parentCommands) {
+            checkNotNull(parentCommands, "parentCommands");
+            this.parentCommands = ImmutableList.copyOf(parentCommands);
+            return this;
+        }
+
+        /**
+         * Get the character set that scripts are decoded with.
+         *
+         * @return The character set
+         */
+        public Charset getCharset() {
+            return charset;
+        }
+
+        /**
+         * Set the character set that scripts are decoded with.
+         *
+         * @param charset The character set
+         * @return The builder
+         */
+        public Builder setCharset(Charset charset) {
+            checkNotNull(charset, "charset");
+            this.charset = charset;
+            return this;
+        }
+
+        /**
+         * Get the executor that independent lines are executed on.
+         *
+         * @return The executor, or null if lines are never executed concurrently
+         */
+        @Nullable
+        public ExecutorService getExecutor() {
+            return executor;
+        }
+
+        /**
+         * Set the executor that independent lines are executed on.
+         *
+         * @param executor The executor, or null to never execute lines concurrently
+         * @return The builder
+         */
+        public Builder setExecutor(@Nullable ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Get the maximum number of independent lines that are submitted
+         * to the executor before waiting for them to finish.
+         *
+         * @return The maximum batch size
+         */
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        /**
+         * Set the maximum number of independent lines that are submitted
+         * to the executor before waiting for them to finish.
+         *
+         * @param maxBatchSize The maximum batch size
+         * @return The builder
+         */
+        public Builder setMaxBatchSize(int maxBatchSize) {
+            checkArgument(maxBatchSize >= 1, "maxBatchSize must be at least 1");
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Create an instance using the configuration from this builder.
+         *
+         * @return The instance
+         */
+        public ScriptRunner build() {
+            checkNotNull(callable, "callable");
+            return new ScriptRunner(this);
+        }
+    }
+
+}
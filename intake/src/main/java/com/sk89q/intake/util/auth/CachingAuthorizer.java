@@ -0,0 +1,299 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.auth;
+
+import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.sk89q.intake.argument.Namespace;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An {@link Authorizer} that remembers the decisions of another authorizer
+ * for each subject and permission.
+ *
+ * <p>The subject is identified by a key that is taken from the namespace
+ * with a function. If the function returns null, the decision is not
+ * cached. Keys must implement {@code equals()} and {@code hashCode()}
+ * so that they identify the same subject across calls.</p>
+ *
+ * <p>Decisions are kept for a limited time and up to a maximum number.
+ * When permissions change, they can be forgotten with
+ * {@link #invalidate(Object)} or {@link #invalidateAll()}.</p>
+ *
+ * <p>Decisions are not stored under the subject directly but under an
+ * epoch that the subject currently has. Invalidating a subject gives
+ * it a new epoch, which takes constant time, and a decision that was
+ * being made at the same time is stored under the old epoch, where it
+ * is never found again.</p>
+ */
+public class CachingAuthorizer implements Authorizer {
+
+    private final Authorizer authorizer;
+    private final Function<? super Namespace, ?> subjectFunction;
+    private final Cache<Object, Epoch> epochs;
+    private final Cache<Decision, Boolean> cache;
+
+    private CachingAuthorizer(Builder builder) {
+        this.authorizer = builder.authorizer;
+        this.subjectFunction = builder.subjectFunction;
+        // An epoch that has not been used for as long as decisions are
+        // kept has no decisions left, so it can be forgotten as well
+        this.epochs = CacheBuilder.newBuilder()
+                .maximumSize(builder.maximumSize)
+                .expireAfterAccess(builder.expireAfterWrite, builder.expireAfterWriteUnit)
+                .build();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(builder.maximumSize)
+                .expireAfterWrite(builder.expireAfterWrite, builder.expireAfterWriteUnit)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public boolean testPermission(Namespace namespace, String permission) {
+        Object subject = subjectFunction.apply(namespace);
+        if (subject == null) {
+            return authorizer.testPermission(namespace, permission);
+        }
+
+        Decision decision = new Decision(getEpoch(subject), permission);
+        Boolean granted = cache.getIfPresent(decision);
+        if (granted == null) {
+            granted = authorizer.testPermission(namespace, permission);
+            cache.put(decision, granted);
+        }
+        return granted;
+    }
+
+    private Epoch getEpoch(Object subject) {
+        Epoch epoch = epochs.getIfPresent(subject);
+        if (epoch == null) {
+            Epoch created = new Epoch();
+            epoch = epochs.asMap().putIfAbsent(subject, created);
+            if (epoch == null) {
+                epoch = created;
+            }
+        }
+        return epoch;
+    }
+
+    /**
+     * Forget every decision that was made for the given subject.
+     *
+     * <p>A decision that is being made for the subject while this method
+     * is called is forgotten as well.</p>
+     *
+     * @param subject The subject key, as returned by the subject function
+     */
+    public void invalidate(Object subject) {
+        checkNotNull(subject, "subject");
+        epochs.invalidate(subject);
+    }
+
+    /**
+     * Forget every decision.
+     */
+    public void invalidateAll() {
+        epochs.invalidateAll();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Get the number of times that a decision was found in the cache.
+     *
+     * @return The number of hits
+     */
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * Get the number of times that the underlying authorizer was asked
+     * because a decision was not in the cache.
+     *
+     * @return The number of misses
+     */
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * Get the statistics of the cache.
+     *
+     * @return The statistics
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Identifies the decisions made for a subject since it was last
+     * invalidated. Epochs are compared by identity.
+     */
+    private static final class Epoch {
+    }
+
+    private static final class Decision {
+        private final Epoch epoch;
+        private final String permission;
+        private final int hashCode;
+
+        private Decision(Epoch epoch, String permission) {
+            this.epoch = epoch;
+            this.permission = permission;
+            this.hashCode = 31 * epoch.hashCode() + permission.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Decision decision = (Decision) o;
+            return epoch == decision.epoch && permission.equals(decision.permission);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Builds instances of {@link CachingAuthorizer}.
+     *
+     * <p>By default, the subject is the {@link Subject} stored in the
+     * namespace under its class, up to 10,000 decisions are kept and
+     * decisions expire one minute after they are made.</p>
+     */
+    public static class Builder {
+        private static final Function<Namespace, Object> DEFAULT_SUBJECT_FUNCTION = new Function<Namespace, Object>() {
+            @Nullable
+            @Override
+            public Object apply(Namespace namespace) {
+                return namespace.get(Subject.class);
+            }
+        };
+
+        @Nullable
+        private Authorizer authorizer;
+        private Function<? super Namespace, ?> subjectFunction = DEFAULT_SUBJECT_FUNCTION;
+        private long maximumSize = 10000;
+        private long expireAfterWrite = 1;
+        private TimeUnit expireAfterWriteUnit = TimeUnit.MINUTES;
+
+        /**
+         * Get the authorizer whose decisions are cached.
+         *
+         * @return The authorizer
+         */
+        @Nullable
+        public Authorizer getAuthorizer() {
+            return authorizer;
+        }
+
+        /**
+         * Set the authorizer whose decisions are cached.
+         *
+         * @param authorizer The authorizer
+         * @return The builder
+         */
+        public Builder setAuthorizer(Authorizer authorizer) {
+            checkNotNull(authorizer, "authorizer");
+            this.authorizer = authorizer;
+            return this;
+        }
+
+        /**
+         * Get the function that returns the key of the subject in a namespace.
+         *
+         * @return The subject function
+         */
+        public Function<? super Namespace, ?> getSubjectFunction() {
+            return subjectFunction;
+        }
+
+        /**
+         * Set the function that returns the key of the subject in a namespace,
+         * or null if decisions should not be cached for the namespace.
+         *
+         * @param subjectFunction The subject function
+         * @return The builder
+         */
+        public Builder setSubjectFunction(Function<? super Namespace, ?> subjectFunction) {
+            checkNotNull(subjectFunction, "subjectFunction");
+            this.subjectFunction = subjectFunction;
+            return this;
+        }
+
+        /**
+         * Get the maximum number of decisions that are kept.
+         *
+         * @return The maximum size
+         */
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        /**
+         * Set the maximum number of decisions that are kept.
+         *
+         * @param maximumSize The maximum size
+         * @return The builder
+         */
+        public Builder setMaximumSize(long maximumSize) {
+            checkArgument(maximumSize >= 0, "maximumSize can't be negative");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Set how long a decision is kept after it is made.
+         *
+         * @param duration The length of time
+         * @param unit The unit of the duration
+         * @return The builder
+         */
+        public Builder setExpireAfterWrite(long duration, TimeUnit unit) {
+            checkArgument(duration >= 0, "duration can't be negative");
+            checkNotNull(unit, "unit");
+            this.expireAfterWrite = duration;
+            this.expireAfterWriteUnit = unit;
+            return this;
+        }
+
+        /**
+         * Create an instance using the configuration from this builder.
+         *
+         * @return The instance
+         */
+        public CachingAuthorizer build() {
+            checkNotNull(authorizer, "authorizer");
+            return new CachingAuthorizer(this);
+        }
+    }
+
+}
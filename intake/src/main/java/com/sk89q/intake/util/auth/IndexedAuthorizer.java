@@ -0,0 +1,48 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.auth;
+
+import com.sk89q.intake.argument.Namespace;
+
+import javax.annotation.Nullable;
+import java.util.BitSet;
+
+/**
+ * An {@link Authorizer} that can also return the permissions granted to
+ * the subject in a namespace as a set of IDs from a {@link PermissionIndex}.
+ *
+ * <p>Commands whose permissions were interned in the same index test the
+ * set directly instead of calling
+ * {@link #testPermission(Namespace, String)} for every permission.</p>
+ */
+public interface IndexedAuthorizer extends Authorizer {
+
+    /**
+     * Get the IDs of the permissions that are granted for the given context.
+     *
+     * <p>The returned set must not be modified by the caller.</p>
+     *
+     * @param namespace The namespace
+     * @return The set of granted IDs, or null to test permission strings instead
+     */
+    @Nullable
+    BitSet getGrantedPermissions(Namespace namespace);
+
+}
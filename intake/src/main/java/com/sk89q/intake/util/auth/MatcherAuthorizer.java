@@ -0,0 +1,55 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.auth;
+
+import com.google.common.base.Function;
+import com.sk89q.intake.argument.Namespace;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An {@link Authorizer} that tests permissions with the
+ * {@link PermissionMatcher} of the subject in the namespace.
+ *
+ * <p>The function that finds the matcher will usually return a matcher
+ * that was compiled once for the subject and cached. If it returns null,
+ * every permission is denied.</p>
+ */
+public class MatcherAuthorizer implements Authorizer {
+
+    private final Function<? super Namespace, PermissionMatcher> matcherFunction;
+
+    /**
+     * Create a new instance.
+     *
+     * @param matcherFunction The function that returns the matcher for a namespace
+     */
+    public MatcherAuthorizer(Function<? super Namespace, PermissionMatcher> matcherFunction) {
+        checkNotNull(matcherFunction, "matcherFunction");
+        this.matcherFunction = matcherFunction;
+    }
+
+    @Override
+    public boolean testPermission(Namespace namespace, String permission) {
+        PermissionMatcher matcher = matcherFunction.apply(namespace);
+        return matcher != null && matcher.matches(permission);
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.auth;
+
+import com.sk89q.intake.argument.Namespace;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Assigns dense integer IDs to permission strings so that sets of
+ * permissions can be stored as a {@link BitSet} and compared without
+ * hashing strings.
+ *
+ * <p>IDs are assigned in the order that permissions are first interned
+ * and never change. Instances are thread-safe.</p>
+ *
+ * @see IndexedAuthorizer
+ */
+public class PermissionIndex {
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+    private final List<String> permissions = new ArrayList<String>();
+
+    /**
+     * Get the ID of the given permission, assigning a new ID if the
+     * permission has not been seen before.
+     *
+     * @param permission The permission
+     * @return The ID
+     */
+    public int intern(String permission) {
+        checkNotNull(permission, "permission");
+        Integer id = ids.get(permission);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (permissions) {
+            id = ids.get(permission);
+            if (id == null) {
+                id = permissions.size();
+                permissions.add(permission);
+                ids.put(permission, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Intern every given permission and return the set of their IDs.
+     *
+     * @param permissions The permissions
+     * @return A new set of IDs
+     */
+    public BitSet internAll(Iterable<String> permissions) {
+        checkNotNull(permissions, "permissions");
+        BitSet set = new BitSet();
+        for (String permission : permissions) {
+            set.set(intern(permission));
+        }
+        return set;
+    }
+
+    /**
+     * Get the ID of the given permission.
+     *
+     * @param permission The permission
+     * @return The ID, or -1 if the permission has not been interned
+     */
+    public int getId(String permission) {
+        checkNotNull(permission, "permission");
+        Integer id = ids.get(permission);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Get the permission with the given ID.
+     *
+     * @param id The ID
+     * @return The permission
+     */
+    public String getPermission(int id) {
+        synchronized (permissions) {
+            checkElementIndex(id, permissions.size());
+            return permissions.get(id);
+        }
+    }
+
+    /**
+     * Get the number of permissions that have been interned.
+     *
+     * @return The number of permissions
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Ask the given authorizer about every interned permission and return
+     * the set of IDs of the permissions that are granted.
+     *
+     * <p>This is a way for an {@link IndexedAuthorizer} to build the set
+     * of granted permissions for a subject once, after which the set
+     * should be kept until the subject's permissions change.</p>
+     *
+     * @param authorizer The authorizer
+     * @param namespace The namespace
+     * @return A new set of IDs
+     */
+    public BitSet getGrantedPermissions(Authorizer authorizer, Namespace namespace) {
+        checkNotNull(authorizer, "authorizer");
+        checkNotNull(namespace, "namespace");
+
+        String[] snapshot;
+        synchronized (permissions) {
+            snapshot = permissions.toArray(new String[permissions.size()]);
+        }
+
+        BitSet granted = new BitSet(snapshot.length);
+        for (int i = 0; i < snapshot.length; i++) {
+            if (authorizer.testPermission(namespace, snapshot[i])) {
+                granted.set(i);
+            }
+        }
+        return granted;
+    }
+
+}
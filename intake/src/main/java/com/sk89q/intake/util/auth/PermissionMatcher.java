@@ -0,0 +1,218 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.auth;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Tests permissions against a set of rules that grant or deny them.
+ *
+ * <p>Permissions are made of segments separated by periods. A rule is
+ * either a permission, such as {@code worldedit.region.set}, or a
+ * permission followed by {@code .*}, such as {@code worldedit.*}, which
+ * applies to every permission below it but not to {@code worldedit}
+ * itself. The rule {@code *} applies to every permission. A rule that
+ * starts with {@code -} denies instead of grants.</p>
+ *
+ * <p>When several rules apply to a permission, the most specific one is
+ * used. A rule for the permission itself is the most specific, followed
+ * by the wildcards of its parents from the nearest to the furthest. If
+ * a grant and a denial are equally specific, the denial wins. If no rule
+ * applies, permission is denied.</p>
+ *
+ * <p>The rules are compiled into a trie of segments, so testing a
+ * permission costs one lookup per segment of the permission no matter
+ * how many rules there are. Matching ignores case. Instances are
+ * immutable and thread-safe.</p>
+ */
+public final class PermissionMatcher {
+
+    private static final PermissionMatcher EMPTY = new PermissionMatcher(new Node());
+    private static final byte NONE = 0;
+    private static final byte GRANT = 1;
+    private static final byte DENY = 2;
+
+    private final Node root;
+
+    private PermissionMatcher(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Get a matcher that denies every permission.
+     *
+     * @return The matcher
+     */
+    public static PermissionMatcher empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compile the given rules.
+     *
+     * @param rules The rules
+     * @return The matcher
+     * @throws IllegalArgumentException Thrown if a rule is not valid
+     */
+    public static PermissionMatcher compile(String... rules) {
+        checkNotNull(rules, "rules");
+        return compile(ImmutableList.copyOf(rules));
+    }
+
+    /**
+     * Compile the given rules.
+     *
+     * @param rules The rules
+     * @return The matcher
+     * @throws IllegalArgumentException Thrown if a rule is not valid
+     */
+    public static PermissionMatcher compile(Iterable<String> rules) {
+        checkNotNull(rules, "rules");
+        Node root = new Node();
+        for (String rule : rules) {
+            add(root, rule);
+        }
+        return new PermissionMatcher(root);
+    }
+
+    private static void add(Node root, String rule) {
+        checkNotNull(rule, "rule");
+        String permission = rule.toLowerCase(Locale.ENGLISH);
+        byte decision = GRANT;
+
+        if (permission.startsWith("-")) {
+            permission = permission.substring(1);
+            decision = DENY;
+        }
+
+        if (permission.isEmpty()) {
+            throw new IllegalArgumentException("The rule '" + rule + "' has no permission");
+        }
+
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int end = permission.indexOf('.', start);
+            if (end == -1) {
+                end = permission.length();
+            }
+
+            String segment = permission.substring(start, end);
+            if (segment.isEmpty()) {
+                throw new IllegalArgumentException("The rule '" + rule + "' has an empty segment");
+            }
+
+            if (segment.equals("*")) {
+                if (end != permission.length()) {
+                    throw new IllegalArgumentException("The rule '" + rule + "' has a wildcard that is not the last segment");
+                }
+                node.wildcard = merge(node.wildcard, decision);
+                return;
+            }
+
+            node = node.getOrCreate(segment);
+
+            if (end == permission.length()) {
+                node.exact = merge(node.exact, decision);
+                return;
+            }
+
+            start = end + 1;
+        }
+    }
+
+    private static byte merge(byte existing, byte decision) {
+        return existing == DENY ? DENY : decision;
+    }
+
+    /**
+     * Test whether the rules grant the given permission.
+     *
+     * @param permission The permission
+     * @return Whether permission is granted
+     */
+    public boolean matches(String permission) {
+        checkNotNull(permission, "permission");
+        String normalized = permission.toLowerCase(Locale.ENGLISH);
+
+        Node node = root;
+        byte decision = NONE;
+        int start = 0;
+        int length = normalized.length();
+
+        while (true) {
+            if (node.wildcard != NONE) {
+                decision = node.wildcard;
+            }
+
+            int end = normalized.indexOf('.', start);
+            if (end == -1) {
+                end = length;
+            }
+
+            node = node.get(normalized.substring(start, end));
+
+            if (node == null) {
+                break;
+            } else if (end == length) {
+                if (node.exact != NONE) {
+                    decision = node.exact;
+                }
+                break;
+            }
+
+            start = end + 1;
+        }
+
+        return decision == GRANT;
+    }
+
+    private static final class Node {
+        @Nullable
+        private Map<String, Node> children;
+        private byte exact = NONE;
+        private byte wildcard = NONE;
+
+        @Nullable
+        Node get(String segment) {
+            return children != null ? children.get(segment) : null;
+        }
+
+        Node getOrCreate(String segment) {
+            if (children == null) {
+                children = new HashMap<String, Node>();
+            }
+            Node child = children.get(segment);
+            if (child == null) {
+                child = new Node();
+                children.put(segment, child);
+            }
+            return child;
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.auth;
+
+import com.sk89q.intake.argument.Namespace;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Remembers the decisions of authorizers for the duration of one
+ * invocation, so that a permission that is tested by several levels of
+ * commands only reaches the {@link Authorizer} once.
+ *
+ * <p>The memo is stored in the {@link Namespace} of the invocation. The
+ * command that receives the invocation first installs it, and removes it
+ * when the invocation is complete, so decisions are never reused by a
+ * later invocation. Instances are not thread-safe.</p>
+ *
+ * <p>Decisions are kept apart for each {@link Subject} stored in the
+ * namespace, so a command that replaces the subject and dispatches again
+ * with the same namespace does not see the decisions made for the
+ * previous subject.</p>
+ */
+public final class PermissionMemo {
+
+    private final Map<Subject, Map<Authorizer, Map<String, Boolean>>> subjects = new IdentityHashMap<Subject, Map<Authorizer, Map<String, Boolean>>>();
+
+    private PermissionMemo() {
+    }
+
+    /**
+     * Install a memo in the given namespace unless one is already present.
+     *
+     * @param namespace The namespace
+     * @return Whether a memo was installed, in which case the caller must
+     *         call {@link #uninstall(Namespace)} when it is done
+     */
+    public static boolean install(Namespace namespace) {
+        checkNotNull(namespace, "namespace");
+        if (namespace.containsKey(PermissionMemo.class)) {
+            return false;
+        } else {
+            namespace.put(PermissionMemo.class, new PermissionMemo());
+            return true;
+        }
+    }
+
+    /**
+     * Remove the memo from the given namespace.
+     *
+     * @param namespace The namespace
+     */
+    public static void uninstall(Namespace namespace) {
+        checkNotNull(namespace, "namespace");
+        namespace.remove(PermissionMemo.class);
+    }
+
+    /**
+     * Test a permission with the given authorizer, using the decision in
+     * the memo of the namespace if there is one.
+     *
+     * @param authorizer The authorizer
+     * @param namespace The namespace
+     * @param permission The permission
+     * @return Whether permission is granted
+     */
+    public static boolean testPermission(Authorizer authorizer, Namespace namespace, String permission) {
+        PermissionMemo memo = namespace.get(PermissionMemo.class);
+        if (memo == null) {
+            return authorizer.testPermission(namespace, permission);
+        }
+
+        Subject subject = namespace.get(Subject.class);
+        Map<Authorizer, Map<String, Boolean>> authorizers = memo.subjects.get(subject);
+        if (authorizers == null) {
+            authorizers = new IdentityHashMap<Authorizer, Map<String, Boolean>>();
+            memo.subjects.put(subject, authorizers);
+        }
+
+        Map<String, Boolean> decisions = authorizers.get(authorizer);
+        if (decisions == null) {
+            decisions = new HashMap<String, Boolean>();
+            authorizers.put(authorizer, decisions);
+        }
+
+        Boolean granted = decisions.get(permission);
+        if (granted == null) {
+            granted = authorizer.testPermission(namespace, permission);
+            decisions.put(permission, granted);
+        }
+        return granted;
+    }
+
+}
@@ -22,6 +22,10 @@ package com.sk89q.intake.argument;
 import com.google.common.collect.ImmutableList;
 import org.junit.Test;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
@@ -78,6 +82,65 @@ public abstract class AbstractCommandArgsTest {
         assertThat(args.position(), is(0));
     }
 
+    @Test
+    public void testNextSequence() throws Exception {
+        CommandArgs args = createCommandArgs(ImmutableList.of("alpha", "bravo"));
+        assertThat(Arguments.peekSequence(args).toString(), equalTo("alpha"));
+        assertThat(args.position(), is(0));
+        assertThat(Arguments.nextSequence(args).toString(), equalTo("alpha"));
+        assertThat(args.position(), is(1));
+        assertThat(Arguments.nextSequence(args).toString(), equalTo("bravo"));
+        assertThat(args.position(), is(2));
+    }
+
+    @Test(expected = MissingArgumentException.class)
+    public void testNextSequenceNoArgs() throws Exception {
+        CommandArgs args = createCommandArgs(ImmutableList.<String>of());
+        Arguments.nextSequence(args);
+    }
+
+    @Test
+    public void testRemainingSequence() throws Exception {
+        CommandArgs args = createCommandArgs(ImmutableList.of("alpha", "bravo", "charlie"));
+        args.next();
+        assertThat(Arguments.remainingSequence(args).toString(), equalTo("bravo charlie"));
+        assertThat(args.position(), is(3));
+    }
+
+    @Test
+    public void testSequencesOfOtherArgs() throws Exception {
+        // Implementations outside of this package only have the string methods
+        final CommandArgs delegate = createCommandArgs(ImmutableList.of("alpha", "bravo", "charlie"));
+        CommandArgs args = (CommandArgs) Proxy.newProxyInstance(CommandArgs.class.getClassLoader(), new Class<?>[] { CommandArgs.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+                try {
+                    return method.invoke(delegate, arguments);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+
+        assertThat(Arguments.peekSequence(args).toString(), equalTo("alpha"));
+        assertThat(Arguments.nextSequence(args).toString(), equalTo("alpha"));
+        assertThat(Arguments.remainingSequence(args).toString(), equalTo("bravo charlie"));
+        assertThat(args.position(), is(3));
+    }
+
+    @Test(expected = MissingArgumentException.class)
+    public void testRemainingSequenceNoArgs() throws Exception {
+        CommandArgs args = createCommandArgs(ImmutableList.of("alpha"));
+        args.next();
+        Arguments.remainingSequence(args);
+    }
+
+    @Test
+    public void testScannerIsReused() throws Exception {
+        CommandArgs args = createCommandArgs(ImmutableList.of("4000"));
+        assertThat(Arguments.getScanner(args), sameInstance(Arguments.getScanner(args)));
+    }
+
     @Test
     public void testSize() throws Exception {
         CommandArgs args;
@@ -84,4 +84,64 @@ public class CommandContextTest {
         assertThat(context.argsLength(), is(2));
     }
 
+    @Test
+    public void testQuotedParsing() throws Exception {
+        CommandContext context = new CommandContext("cmd \"alpha  bravo\" 'c' \"\" -x- \"d");
+        assertThat(context.getString(0), equalTo("alpha  bravo"));
+        assertThat(context.getString(1), equalTo("c"));
+        assertThat(context.getString(2), equalTo("-x-"));
+        assertThat(context.getString(3), equalTo("\"d"));
+        assertThat(context.argsLength(), is(4));
+        assertThat(context.getJoinedStrings(1), equalTo("'c' \"\" -x- \"d"));
+        assertThat(context.getString(0, 1), equalTo("alpha  bravo c"));
+    }
+
+    @Test
+    public void testUnclosedQuotes() throws Exception {
+        CommandContext context = new CommandContext("cmd \"a 'b \"c 'd e' f\"");
+        assertThat(context.getString(0), equalTo("a 'b \"c 'd e' f"));
+        assertThat(context.argsLength(), is(1));
+
+        context = new CommandContext("cmd \"a \"b 'c 'd e'");
+        assertThat(context.getString(0), equalTo("\"a"));
+        assertThat(context.getString(1), equalTo("\"b"));
+        assertThat(context.getString(2), equalTo("c 'd e"));
+        assertThat(context.argsLength(), is(3));
+    }
+
+    @Test
+    public void testTokens() throws Exception {
+        String input = "-a \"alpha bravo\" -v value charlie ";
+        CommandContext expected = new CommandContext("cmd " + input, ImmutableSet.of('v'));
+        CommandContext context = new CommandContext("cmd", Tokens.split(input), ImmutableSet.of('v'), false, null);
+        assertThat(context.getCommand(), equalTo("cmd"));
+        assertThat(context.getParsedSlice(0), equalTo(expected.getParsedSlice(0)));
+        assertThat(context.getSlice(0), equalTo(expected.getSlice(0)));
+        assertThat(context.getFlagsMap(), equalTo(expected.getFlagsMap()));
+        assertThat(context.getJoinedStrings(0), equalTo(expected.getJoinedStrings(0)));
+        assertThat(context.getSuggestionContext().forHangingValue(), is(true));
+    }
+
+    @Test
+    public void testFlaglessParsing() throws Exception {
+        CommandContext context = new CommandContext("cmd alpha \"bravo charlie\" ");
+        assertThat(context.getFlags().isEmpty(), is(true));
+        assertThat(context.getFlagsMap().isEmpty(), is(true));
+        assertThat(context.argsLength(), is(2));
+        assertThat(context.getString(1), equalTo("bravo charlie"));
+        assertThat(context.getSuggestionContext().forHangingValue(), is(true));
+
+        context = new CommandContext("cmd alpha");
+        assertThat(context.getSuggestionContext().forLastValue(), is(true));
+        assertThat(context.getJoinedStrings(0), equalTo("alpha"));
+    }
+
+    @Test
+    public void testQuotedFlagParsing() throws Exception {
+        CommandContext context = new CommandContext("cmd \"-a\" alpha");
+        assertThat(context.hasFlag('a'), is(true));
+        assertThat(context.argsLength(), is(1));
+        assertThat(context.getString(0), equalTo("alpha"));
+    }
+
 }
@@ -0,0 +1,80 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CommandLineTest {
+
+    @Test
+    public void testTokens() throws Exception {
+        CommandLine line = CommandLine.of("world  create ocean", ImmutableList.<String>of());
+        assertThat(line.size(), is(4));
+        assertThat(line.getToken(0), equalTo("world"));
+        assertThat(line.getToken(1), equalTo(""));
+        assertThat(line.getToken(2), equalTo("create"));
+        assertThat(line.start(2), is(7));
+        assertThat(line.end(2), is(13));
+    }
+
+    @Test
+    public void testAdvance() throws Exception {
+        CommandLine line = CommandLine.of("world create  ocean", ImmutableList.of("root"));
+        assertThat(line.getRemaining(), equalTo("world create  ocean"));
+        assertThat(line.getParentCommands(), contains("root"));
+
+        line = line.advance();
+        assertThat(line.position(), is(1));
+        assertThat(line.getRemaining(), equalTo("create  ocean"));
+        assertThat(line.getParentCommands(), contains("root", "world"));
+
+        line = line.advance();
+        assertThat(line.getRemaining(), equalTo(" ocean"));
+        assertThat(line.getParentCommands(), contains("root", "world", "create"));
+        assertThat(line.toContextArguments(), arrayContaining("create", "", "ocean"));
+
+        line = line.advance().advance();
+        assertThat(line.hasNext(), is(false));
+        assertThat(line.getRemaining(), equalTo(""));
+        assertThat(line.toContextArguments(), arrayContaining("ocean", ""));
+    }
+
+    @Test
+    public void testContextArgumentsMatchSplit() throws Exception {
+        String[] inputs = { "", "a", "a ", " a", "a b", "a  b -f", "\"a b\" c" };
+        for (String input : inputs) {
+            CommandLine line = CommandLine.of(input, ImmutableList.of("cmd"));
+            assertThat(line.toContextArguments(), equalTo(CommandContext.split("cmd " + input)));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAdvancePastEnd() throws Exception {
+        CommandLine.of("a", ImmutableList.<String>of()).advance().advance();
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import com.sk89q.intake.argument.NumberScanner.Units;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class NumberScannerTest {
+
+    @Test
+    public void testScanLong() {
+        NumberScanner scanner = new NumberScanner();
+        assertThat(scanner.scanLong("0"), is(NumberScanner.OK));
+        assertThat(scanner.getLong(), is(0L));
+        assertThat(scanner.scanLong("+42"), is(NumberScanner.OK));
+        assertThat(scanner.getLong(), is(42L));
+        assertThat(scanner.scanLong("-42"), is(NumberScanner.OK));
+        assertThat(scanner.getLong(), is(-42L));
+        assertThat(scanner.scanLong("9223372036854775807"), is(NumberScanner.OK));
+        assertThat(scanner.getLong(), is(Long.MAX_VALUE));
+        assertThat(scanner.scanLong("-9223372036854775808"), is(NumberScanner.OK));
+        assertThat(scanner.getLong(), is(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void testScanLongFailures() {
+        NumberScanner scanner = new NumberScanner();
+        assertThat(scanner.scanLong(""), is(NumberScanner.EMPTY));
+        assertThat(scanner.scanLong("-"), is(NumberScanner.MALFORMED));
+        assertThat(scanner.scanLong("1.5"), is(NumberScanner.MALFORMED));
+        assertThat(scanner.scanLong("1-"), is(NumberScanner.MALFORMED));
+        assertThat(scanner.scanLong("alpha"), is(NumberScanner.MALFORMED));
+        assertThat(scanner.scanLong("5k"), is(NumberScanner.UNKNOWN_UNIT));
+        assertThat(scanner.scanLong("9223372036854775808"), is(NumberScanner.OUT_OF_RANGE));
+        assertThat(scanner.scanLong("-9223372036854775809"), is(NumberScanner.OUT_OF_RANGE));
+    }
+
+    @Test
+    public void testScanInt() {
+        NumberScanner scanner = new NumberScanner();
+        assertThat(scanner.scanInt("-2147483648"), is(NumberScanner.OK));
+        assertThat(scanner.getInt(), is(Integer.MIN_VALUE));
+        assertThat(scanner.scanInt("2147483648"), is(NumberScanner.OUT_OF_RANGE));
+        assertThat(scanner.getLong(), is((long) Integer.MIN_VALUE));
+        assertThat(scanner.scanLong("9223372036854775808"), is(NumberScanner.OUT_OF_RANGE));
+        assertThat(scanner.getInt(), is(Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void testScanRange() {
+        NumberScanner scanner = new NumberScanner();
+        assertThat(scanner.scanInt("x 123 y", 2, 5, Units.NONE), is(NumberScanner.OK));
+        assertThat(scanner.getInt(), is(123));
+        assertThat(scanner.scanDouble("x 1.5 y", 2, 5, Units.NONE), is(NumberScanner.OK));
+        assertThat(scanner.getDouble(), is(1.5));
+    }
+
+    @Test
+    public void testScanDouble() {
+        NumberScanner scanner = new NumberScanner();
+        String[] inputs = {
+                "0", "-0", "1", "-1", "40.23", ".5", "5.", "+3.25", "1e10", "1E-10", "-2.5e+3",
+                "0.1", "0.3", "3.141592653589793", "123456789012345678901234567890",
+                "0.000000000000000000000000000123", "1e-320", "4.9e-324", "1.7976931348623157e308",
+                "00012.50000"
+        };
+        for (String input : inputs) {
+            assertThat(input, scanner.scanDouble(input), is(NumberScanner.OK));
+            assertThat(input, scanner.getDouble(), equalTo(Double.parseDouble(input)));
+        }
+    }
+
+    @Test
+    public void testScanDoubleFailures() {
+        NumberScanner scanner = new NumberScanner();
+        assertThat(scanner.scanDouble(""), is(NumberScanner.EMPTY));
+        assertThat(scanner.scanDouble("."), is(NumberScanner.MALFORMED));
+        assertThat(scanner.scanDouble("-"), is(NumberScanner.MALFORMED));
+        assertThat(scanner.scanDouble("1e"), is(NumberScanner.MALFORMED));
+        assertThat(scanner.scanDouble("1.2.3"), is(NumberScanner.MALFORMED));
+        assertThat(scanner.scanDouble("NaN"), is(NumberScanner.MALFORMED));
+        assertThat(scanner.scanDouble("Infinity"), is(NumberScanner.MALFORMED));
+        assertThat(scanner.scanDouble("1x"), is(NumberScanner.UNKNOWN_UNIT));
+        assertThat(scanner.scanDouble("1e999"), is(NumberScanner.OUT_OF_RANGE));
+    }
+
+    @Test
+    public void testMetricUnits() {
+        NumberScanner scanner = new NumberScanner();
+        assertThat(scanner.scanLong("5k", 0, 2, Units.METRIC), is(NumberScanner.OK));
+        assertThat(scanner.getLong(), is(5000L));
+        assertThat(scanner.scanLong("-2M", 0, 3, Units.METRIC), is(NumberScanner.OK));
+        assertThat(scanner.getLong(), is(-2000000L));
+        assertThat(scanner.scanDouble("1.5G", 0, 4, Units.METRIC), is(NumberScanner.OK));
+        assertThat(scanner.getDouble(), is(1.5e9));
+        assertThat(scanner.scanLong("12", 0, 2, Units.METRIC), is(NumberScanner.OK));
+        assertThat(scanner.getLong(), is(12L));
+        assertThat(scanner.scanLong("5m", 0, 2, Units.METRIC), is(NumberScanner.UNKNOWN_UNIT));
+        assertThat(scanner.scanLong("10000000T", 0, 9, Units.METRIC), is(NumberScanner.OUT_OF_RANGE));
+    }
+
+    @Test
+    public void testDurationUnits() {
+        NumberScanner scanner = new NumberScanner();
+        assertThat(scanner.scanLong("30s", 0, 3, Units.DURATION), is(NumberScanner.OK));
+        assertThat(scanner.getLong(), is(30000L));
+        assertThat(scanner.scanLong("5m", 0, 2, Units.DURATION), is(NumberScanner.OK));
+        assertThat(scanner.getLong(), is(300000L));
+        assertThat(scanner.scanLong("2H", 0, 2, Units.DURATION), is(NumberScanner.OK));
+        assertThat(scanner.getLong(), is(7200000L));
+        assertThat(scanner.scanLong("250ms", 0, 5, Units.DURATION), is(NumberScanner.OK));
+        assertThat(scanner.getLong(), is(250L));
+        assertThat(scanner.scanDouble("1.5d", 0, 4, Units.DURATION), is(NumberScanner.OK));
+        assertThat(scanner.getDouble(), is(1.5 * 24 * 60 * 60 * 1000));
+        assertThat(scanner.scanLong("3y", 0, 2, Units.DURATION), is(NumberScanner.UNKNOWN_UNIT));
+        assertThat(scanner.scanLong("3sec", 0, 4, Units.DURATION), is(NumberScanner.UNKNOWN_UNIT));
+    }
+
+}
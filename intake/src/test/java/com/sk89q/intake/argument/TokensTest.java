@@ -0,0 +1,100 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TokensTest {
+
+    @Test
+    public void testSplitMatchesStringSplit() throws Exception {
+        String[] inputs = { "", " ", "a", "a ", " a", "a b", "a  b -f", "\"a b\" c  " };
+        for (String input : inputs) {
+            Tokens tokens = Tokens.split(input);
+            String[] expected = CommandContext.split(input);
+            assertThat(tokens.size(), is(expected.length));
+            for (int i = 0; i < expected.length; i++) {
+                assertThat(tokens.get(i), equalTo(expected[i]));
+                assertThat(tokens.length(i), is(expected[i].length()));
+            }
+        }
+    }
+
+    @Test
+    public void testSpans() throws Exception {
+        Tokens tokens = Tokens.split(new StringBuilder("alpha  bravo"));
+        assertThat(tokens.size(), is(3));
+        assertThat(tokens.start(2), is(7));
+        assertThat(tokens.end(2), is(12));
+        assertThat(tokens.get(1), equalTo(""));
+
+        Tokens tail = tokens.tail(2);
+        assertThat(tail.size(), is(1));
+        assertThat(tail.start(0), is(7));
+        assertThat(tail.get(0), equalTo("bravo"));
+        assertThat(tail.toString(), equalTo("bravo"));
+        assertThat(tokens.tail(3).size(), is(0));
+    }
+
+    @Test
+    public void testOf() throws Exception {
+        Tokens tokens = Tokens.of("cmd", "alpha bravo", "");
+        assertThat(tokens.size(), is(3));
+        assertThat(tokens.get(1), equalTo("alpha bravo"));
+        assertThat(tokens.length(1), is(11));
+        assertThat(tokens.get(2), equalTo(""));
+        assertThat(tokens.toString(), equalTo("cmd alpha bravo "));
+    }
+
+    @Test
+    public void testLongInputMatchesScalarSplit() throws Exception {
+        Random random = new Random(0);
+        int[] spacings = { 2, 8, 40, 1000 };
+        for (int spacing : spacings) {
+            for (int length = Tokens.BULK_SCAN_THRESHOLD - 2; length < Tokens.BULK_SCAN_THRESHOLD * 4; length += 37) {
+                StringBuilder builder = new StringBuilder();
+                for (int i = 0; i < length; i++) {
+                    builder.append(random.nextInt(spacing) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+                }
+
+                // A StringBuilder is always split one character at a time
+                Tokens expected = Tokens.split(builder);
+                Tokens tokens = Tokens.split(builder.toString());
+                assertThat(tokens.size(), is(expected.size()));
+                for (int i = 0; i < expected.size(); i++) {
+                    assertThat(tokens.start(i), is(expected.start(i)));
+                    assertThat(tokens.end(i), is(expected.end(i)));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() throws Exception {
+        Tokens.split("a b").tail(1).get(1);
+    }
+
+}
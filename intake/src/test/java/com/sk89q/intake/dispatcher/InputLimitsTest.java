@@ -0,0 +1,72 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.dispatcher;
+
+import com.google.common.base.Strings;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class InputLimitsTest {
+
+    @Test
+    public void testUnlimited() {
+        InputLimits limits = new InputLimits.Builder().build();
+        assertThat(limits.check(""), nullValue());
+        assertThat(limits.check(Strings.repeat("\"a ", 1000)), nullValue());
+    }
+
+    @Test
+    public void testMaxLength() {
+        InputLimits limits = new InputLimits.Builder().setMaxLength(5).build();
+        assertThat(limits.check("abcde"), nullValue());
+        assertThat(limits.check("abcdef"), is(InputLimits.Violation.LENGTH));
+    }
+
+    @Test
+    public void testMaxTokens() {
+        InputLimits limits = new InputLimits.Builder().setMaxTokens(2).build();
+        assertThat(limits.check("a b"), nullValue());
+        assertThat(limits.check("a b c"), is(InputLimits.Violation.TOKENS));
+        assertThat(limits.check("a  b"), is(InputLimits.Violation.TOKENS));
+    }
+
+    @Test
+    public void testMaxQuoteSpan() {
+        InputLimits limits = new InputLimits.Builder().setMaxQuoteSpan(7).build();
+        assertThat(limits.check("say \"a b c\" and more"), nullValue());
+        assertThat(limits.check("say \"a b c d\""), is(InputLimits.Violation.QUOTE_SPAN));
+        assertThat(limits.check("say 'a b c d'"), is(InputLimits.Violation.QUOTE_SPAN));
+        assertThat(limits.check("say \"abcdefgh\""), is(InputLimits.Violation.QUOTE_SPAN));
+    }
+
+    @Test
+    public void testUnclosedQuotesAreNotSpans() {
+        InputLimits limits = new InputLimits.Builder().setMaxQuoteSpan(7).build();
+        // The first quote is never closed, so it is literal and the second pair is matched on its own
+        assertThat(limits.check("say \"a b c d e 'f g'"), nullValue());
+        assertThat(limits.check("say \"a b c d e 'f g h i'"), is(InputLimits.Violation.QUOTE_SPAN));
+        assertThat(limits.check("say \"a b c d e f g h"), nullValue());
+        assertThat(limits.check("say ' \" '"), nullValue());
+    }
+
+}
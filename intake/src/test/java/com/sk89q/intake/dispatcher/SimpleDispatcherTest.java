@@ -0,0 +1,295 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.dispatcher;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.CommandMapping;
+import com.sk89q.intake.Description;
+import com.sk89q.intake.ImmutableDescription;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.util.auth.Authorizer;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class SimpleDispatcherTest {
+
+    @Test
+    public void testGetIgnoresCase() throws Exception {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        TestCommand command = new TestCommand();
+        dispatcher.registerCommand(command, "Teleport", "tp");
+
+        assertThat(dispatcher.get("teleport").getCallable(), sameInstance((CommandCallable) command));
+        assertThat(dispatcher.get("TELEPORT").getCallable(), sameInstance((CommandCallable) command));
+        assertThat(dispatcher.get("Tp").getCallable(), sameInstance((CommandCallable) command));
+        assertThat(dispatcher.get("tele"), nullValue());
+        assertThat(dispatcher.contains("TP"), is(true));
+        assertThat(dispatcher.contains("t"), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegisterReplacement() throws Exception {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        dispatcher.registerCommand(new TestCommand(), "tp");
+        dispatcher.registerCommand(new TestCommand(), "TP");
+    }
+
+    @Test
+    public void testCall() throws Exception {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        SimpleDispatcher group = new SimpleDispatcher();
+        TestCommand command = new TestCommand();
+        dispatcher.registerCommand(group, "world");
+        group.registerCommand(command, "create");
+
+        dispatcher.call("WORLD create ocean  deep", new Namespace(), Collections.<String>emptyList());
+        assertThat(command.arguments, equalTo("ocean  deep"));
+        assertThat(command.parents, contains("WORLD", "create"));
+    }
+
+    @Test
+    public void testCallWithInputLimits() throws Exception {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        TestCommand command = new TestCommand();
+        dispatcher.registerCommand(command, "say");
+        InputLimits limits = new InputLimits.Builder().setMaxTokens(3).build();
+        dispatcher.setInputLimits(limits);
+
+        dispatcher.call("say hello world", new Namespace(), Collections.<String>emptyList());
+        assertThat(command.arguments, equalTo("hello world"));
+
+        try {
+            dispatcher.call("say hello big world", new Namespace(), Collections.<String>emptyList());
+            fail("Expected InputLimitException");
+        } catch (InputLimitException e) {
+            assertThat(e.getViolation(), is(InputLimits.Violation.TOKENS));
+        }
+
+        assertThat(command.arguments, equalTo("hello world"));
+        assertThat(limits.getRejectedCount(), is(1L));
+        assertThat(limits.getRejectedCount(InputLimits.Violation.TOKENS), is(1L));
+    }
+
+    @Test
+    public void testGetSuggestions() throws Exception {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        dispatcher.registerCommand(new TestCommand(), "teleport", "tp");
+        dispatcher.registerCommand(new TestCommand(), "time");
+        dispatcher.registerCommand(new TestCommand(), "weather");
+        dispatcher.registerCommand(new TestCommand(false), "tell");
+
+        assertThat(dispatcher.getSuggestions("t", new Namespace()), contains("teleport", "time"));
+        assertThat(dispatcher.getSuggestions("TP", new Namespace()), contains("teleport"));
+        assertThat(dispatcher.getSuggestions("", new Namespace()), contains("teleport", "time", "weather"));
+        assertThat(dispatcher.getSuggestions("x", new Namespace()), Matchers.<String>empty());
+    }
+
+    @Test
+    public void testViewsAreCached() throws Exception {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        dispatcher.registerCommand(new TestCommand(), "teleport", "tp");
+
+        Set<CommandMapping> commands = dispatcher.getCommands();
+        Set<String> primaryAliases = dispatcher.getPrimaryAliases();
+        assertThat(dispatcher.getCommands(), sameInstance(commands));
+        assertThat(dispatcher.getPrimaryAliases(), sameInstance(primaryAliases));
+        assertThat(primaryAliases, contains("teleport"));
+
+        dispatcher.registerCommand(new TestCommand(), "time");
+        assertThat(dispatcher.getCommands().size(), is(2));
+        assertThat(dispatcher.getPrimaryAliases(), containsInAnyOrder("teleport", "time"));
+        assertThat(dispatcher.getAliases(), containsInAnyOrder("teleport", "tp", "time"));
+        assertThat(commands.size(), is(1));
+    }
+
+    @Test
+    public void testRegisterManyCommands() throws Exception {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        for (int i = 0; i < 20000; i++) {
+            dispatcher.registerCommand(new TestCommand("perm" + i), "cmd" + i, "c" + i);
+        }
+
+        assertThat(dispatcher.getCommands().size(), is(20000));
+        assertThat(dispatcher.getAliases().size(), is(40000));
+        assertThat(dispatcher.get("CMD123").getPrimaryAlias(), equalTo("cmd123"));
+        assertThat(dispatcher.get("c19999").getPrimaryAlias(), equalTo("cmd19999"));
+        assertThat(dispatcher.getPrimaryAliases().iterator().next(), equalTo("cmd0"));
+        assertThat(dispatcher.getDescription().getPermissions().size(), is(20000));
+    }
+
+    @Test
+    public void testPermissionSummary() throws Exception {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        SimpleDispatcher world = new SimpleDispatcher();
+        SimpleDispatcher region = new SimpleDispatcher();
+        dispatcher.registerCommand(world, "world");
+        world.registerCommand(region, "region");
+        world.registerCommand(new TestCommand("world.create"), "create");
+        region.registerCommand(new TestCommand("region.define", "region.admin"), "define");
+        dispatcher.registerCommand(new TestCommand("time.set"), "time");
+
+        assertThat(dispatcher.getDescription().getPermissions(),
+                containsInAnyOrder("world.create", "region.define", "region.admin", "time.set"));
+        assertThat(world.getDescription().getPermissions(),
+                containsInAnyOrder("world.create", "region.define", "region.admin"));
+
+        TestAuthorizer authorizer = new TestAuthorizer("region.admin");
+        dispatcher.setAuthorizer(authorizer);
+        assertThat(dispatcher.testPermission(new Namespace()), is(true));
+
+        authorizer = new TestAuthorizer();
+        dispatcher.setAuthorizer(authorizer);
+        assertThat(dispatcher.testPermission(new Namespace()), is(false));
+        assertThat(authorizer.tested.size(), is(4));
+
+        // Registering below a nested dispatcher updates every ancestor
+        region.registerCommand(new TestCommand("region.info"), "info");
+        assertThat(dispatcher.getDescription().getPermissions(), Matchers.hasItem("region.info"));
+        dispatcher.setAuthorizer(new TestAuthorizer("region.info"));
+        assertThat(dispatcher.testPermission(new Namespace()), is(true));
+
+        // A command without permissions is asked directly
+        region.registerCommand(new TestCommand(false), "hidden");
+        dispatcher.setAuthorizer(new TestAuthorizer());
+        assertThat(dispatcher.testPermission(new Namespace()), is(false));
+        assertThat(dispatcher.getDescription().getPermissions(), Matchers.<String>empty());
+
+        region.registerCommand(new TestCommand(), "list");
+        assertThat(dispatcher.testPermission(new Namespace()), is(true));
+    }
+
+    @Test
+    public void testConcurrentRegistration() throws Exception {
+        final SimpleDispatcher dispatcher = new SimpleDispatcher();
+        final AtomicInteger failures = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+
+        for (int i = 0; i < 8; i++) {
+            final int id = i;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < 100; j++) {
+                            dispatcher.registerCommand(new TestCommand(), "cmd" + id + "_" + j);
+                            try {
+                                dispatcher.registerCommand(new TestCommand(), "shared" + j);
+                            } catch (IllegalArgumentException ignored) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(dispatcher.getCommands().size(), is(900));
+        assertThat(dispatcher.getAliases().size(), is(900));
+        assertThat(failures.get(), is(700));
+    }
+
+    private static class TestAuthorizer implements Authorizer {
+        private final Set<String> granted;
+        private final List<String> tested = new ArrayList<String>();
+
+        private TestAuthorizer(String... granted) {
+            this.granted = new HashSet<String>(ImmutableList.copyOf(granted));
+        }
+
+        @Override
+        public boolean testPermission(Namespace namespace, String permission) {
+            tested.add(permission);
+            return granted.contains(permission);
+        }
+    }
+
+    private static class TestCommand implements CommandCallable {
+        private final boolean permitted;
+        private final List<String> permissions;
+        private String arguments;
+        private List<String> parents;
+
+        private TestCommand() {
+            this(true);
+        }
+
+        private TestCommand(boolean permitted) {
+            this.permitted = permitted;
+            this.permissions = ImmutableList.of();
+        }
+
+        private TestCommand(String... permissions) {
+            this.permitted = true;
+            this.permissions = ImmutableList.copyOf(permissions);
+        }
+
+        @Override
+        public boolean call(String arguments, Namespace namespace, List<String> parentCommands) {
+            this.arguments = arguments;
+            this.parents = ImmutableList.copyOf(parentCommands);
+            return true;
+        }
+
+        @Override
+        public Description getDescription() {
+            return new ImmutableDescription.Builder().setPermissions(permissions).build();
+        }
+
+        @Override
+        public boolean testPermission(Namespace namespace) {
+            return permitted;
+        }
+
+        @Override
+        public List<String> getSuggestions(String arguments, Namespace locals) {
+            return Collections.emptyList();
+        }
+    }
+
+}
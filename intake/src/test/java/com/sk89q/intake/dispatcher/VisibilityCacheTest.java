@@ -0,0 +1,143 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.dispatcher;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSet;
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.Description;
+import com.sk89q.intake.ImmutableDescription;
+import com.sk89q.intake.argument.Namespace;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class VisibilityCacheTest {
+
+    private static final Function<Namespace, Object> GROUP = new Function<Namespace, Object>() {
+        @Override
+        public Object apply(Namespace namespace) {
+            return namespace.get("group");
+        }
+    };
+
+    @Test
+    public void testCompute() throws Exception {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        SimpleDispatcher world = new SimpleDispatcher();
+        SimpleDispatcher empty = new SimpleDispatcher();
+        TestCommand create = new TestCommand("create");
+        dispatcher.registerCommand(world, "world");
+        dispatcher.registerCommand(world, "w");
+        dispatcher.registerCommand(empty, "empty");
+        dispatcher.registerCommand(new TestCommand("time"), "time");
+        world.registerCommand(create, "create");
+        world.registerCommand(new TestCommand("delete"), "delete");
+
+        List<VisibleCommand> commands = VisibleCommand.compute(dispatcher, createNamespace("users", "create", "time"));
+        assertThat(primaryAliases(commands), contains("world", "w", "time"));
+        assertThat(primaryAliases(commands.get(0).getChildren()), contains("create"));
+        assertThat(commands.get(1).getChildren(), sameInstance(commands.get(0).getChildren()));
+
+        // The shared subtree was only tested once
+        assertThat(create.tests, is(1));
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        SimpleDispatcher world = new SimpleDispatcher();
+        TestCommand create = new TestCommand("create");
+        dispatcher.registerCommand(world, "world");
+        world.registerCommand(create, "create");
+
+        VisibilityCache cache = new VisibilityCache(dispatcher, GROUP);
+        List<VisibleCommand> commands = cache.getVisibleCommands(createNamespace("users", "create"));
+        assertThat(cache.getVisibleCommands(createNamespace("users", "create")), sameInstance(commands));
+        assertThat(create.tests, is(1));
+
+        List<VisibleCommand> guests = cache.getVisibleCommands(createNamespace("guests"));
+        assertThat(guests.isEmpty(), is(true));
+
+        // Registering below a child dispatcher invalidates the tree
+        world.registerCommand(new TestCommand("delete"), "delete");
+        List<VisibleCommand> updated = cache.getVisibleCommands(createNamespace("users", "create", "delete"));
+        assertThat(updated, not(sameInstance(commands)));
+        assertThat(primaryAliases(updated.get(0).getChildren()), contains("create", "delete"));
+
+        cache.invalidate("users");
+        assertThat(cache.getVisibleCommands(createNamespace("users", "create")), not(sameInstance(updated)));
+    }
+
+    private static List<String> primaryAliases(List<VisibleCommand> commands) {
+        List<String> aliases = new ArrayList<String>();
+        for (VisibleCommand command : commands) {
+            aliases.add(command.getMapping().getPrimaryAlias());
+        }
+        return aliases;
+    }
+
+    private static Namespace createNamespace(String group, String... granted) {
+        Namespace namespace = new Namespace();
+        namespace.put("group", group);
+        namespace.put("granted", ImmutableSet.copyOf(granted));
+        return namespace;
+    }
+
+    private static class TestCommand implements CommandCallable {
+        private final String permission;
+        private int tests;
+
+        private TestCommand(String permission) {
+            this.permission = permission;
+        }
+
+        @Override
+        public boolean call(String arguments, Namespace namespace, List<String> parentCommands) {
+            return true;
+        }
+
+        @Override
+        public Description getDescription() {
+            return new ImmutableDescription.Builder().build();
+        }
+
+        @Override
+        public boolean testPermission(Namespace namespace) {
+            tests++;
+            return ((Set<?>) namespace.get("granted")).contains(permission);
+        }
+
+        @Override
+        public List<String> getSuggestions(String arguments, Namespace locals) {
+            return Collections.emptyList();
+        }
+    }
+
+}
@@ -0,0 +1,320 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.sk89q.intake.Intake;
+import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.ArgumentParseException;
+import com.sk89q.intake.argument.Arguments;
+import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.CommandContext;
+import com.sk89q.intake.argument.MissingArgumentException;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.argument.UnusedArgumentException;
+import com.sk89q.intake.parametric.annotation.Optional;
+import com.sk89q.intake.parametric.annotation.Range;
+import com.sk89q.intake.parametric.annotation.Switch;
+import com.sk89q.intake.parametric.annotation.Validate;
+import com.sk89q.intake.parametric.provider.PrimitivesModule;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ArgumentParserTest {
+
+    private static ArgumentParser createParser() throws Exception {
+        return createParser("command", int.class, int.class, boolean.class, String.class);
+    }
+
+    private static ArgumentParser createParser(String name, Class<?>... parameterTypes) throws Exception {
+        Injector injector = Intake.createInjector();
+        injector.install(new PrimitivesModule());
+        return createParser(injector, name, parameterTypes);
+    }
+
+    private static ArgumentParser createParser(Injector injector, String name, Class<?>... parameterTypes) throws Exception {
+        ArgumentParser.Builder builder = new ArgumentParser.Builder(injector);
+
+        Method method = ArgumentParserTest.class.getDeclaredMethod(name, parameterTypes);
+        for (int i = 0; i < method.getParameterTypes().length; i++) {
+            builder.addParameter(method.getGenericParameterTypes()[i], Arrays.asList(method.getParameterAnnotations()[i]));
+        }
+        return builder.build();
+    }
+
+    private static CommandArgs parse(String input) throws Exception {
+        return Arguments.viewOf(new CommandContext(input, ImmutableSet.of('v')));
+    }
+
+    @SuppressWarnings("unused")
+    private static void command(int count, @Optional("500") int radius, @Switch('f') boolean force, @Switch('v') String value) {
+    }
+
+    @SuppressWarnings("unused")
+    private static void validated(@Range(min = 1, max = 10) int count, @Range(min = -1, max = 1) Double factor, @Validate(regex = "[a-z]+") String name) {
+    }
+
+    @SuppressWarnings("unused")
+    private static void invalidRegex(@Validate(regex = "[a-z") String name) {
+    }
+
+    @SuppressWarnings("unused")
+    private static void numbers(int i, long l, double d, float f, short s, Integer boxed, @Optional("2.5") double radius) {
+    }
+
+    @SuppressWarnings("unused")
+    private static void offset(@Optional("5") int value) {
+    }
+
+    @SuppressWarnings("unused")
+    private static void optionals(int count, @Optional Object first, @Optional Object second) {
+    }
+
+    @Test
+    public void testParseDefaults() throws Exception {
+        ArgumentParser parser = createParser();
+        assertThat(parser.getValueFlags(), contains('v'));
+
+        Object[] args = parser.parseArguments(parse("cmd 3"));
+        assertThat(args, arrayContaining((Object) 3, 500, false, null));
+    }
+
+    @Test
+    public void testParseFlags() throws Exception {
+        ArgumentParser parser = createParser();
+
+        Object[] args = parser.parseArguments(parse("cmd -f 3 7 -v alpha"));
+        assertThat(args, arrayContaining((Object) 3, 7, true, "alpha"));
+
+        args = parser.parseArguments(parse("cmd -v bravo 3"));
+        assertThat(args, arrayContaining((Object) 3, 500, false, "bravo"));
+    }
+
+    @Test
+    public void testDefaultsAreComputedOnce() throws Exception {
+        ArgumentParser parser = createParser();
+        Object first = parser.parseArguments(parse("cmd 3"))[1];
+        Object second = parser.parseArguments(parse("cmd 4"))[1];
+        assertThat(second, sameInstance(first));
+    }
+
+    @Test
+    public void testContextDependentDefaults() throws Exception {
+        Injector injector = Intake.createInjector();
+        injector.install(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(int.class).toProvider(new OffsetProvider());
+            }
+        });
+        ArgumentParser parser = createParser(injector, "offset", int.class);
+
+        assertThat(parser.parseArguments(withOffset(10)), arrayContaining((Object) 15));
+        assertThat(parser.parseArguments(withOffset(20)), arrayContaining((Object) 25));
+    }
+
+    private static CommandArgs withOffset(int offset) {
+        Namespace namespace = new Namespace();
+        namespace.put("offset", offset);
+        return Arguments.copyOf(ImmutableList.<String>of(), ImmutableMap.<Character, String>of(), namespace);
+    }
+
+    @Test
+    public void testParsePrimitiveValues() throws Exception {
+        ArgumentParser parser = createParser("numbers", int.class, long.class, double.class, float.class, short.class, Integer.class, double.class);
+
+        ParameterValues values = parser.parseValues(parse("cmd 4000 9007199254740993 1.25 0.5 -7 8"), false, ImmutableSet.<Character>of());
+        assertThat(values.size(), is(7));
+        assertThat(values.getInt(0), is(4000));
+        assertThat(values.getLong(1), is(9007199254740993L));
+        assertThat(values.getDouble(2), is(1.25));
+        assertThat(values.getFloat(3), is(0.5f));
+        assertThat(values.getShort(4), is((short) -7));
+        assertThat(values.getInt(5), is(8));
+        assertThat(values.getDouble(6), is(2.5));
+        assertThat(values.toArray(), arrayContaining((Object) 4000, 9007199254740993L, 1.25, 0.5f, (short) -7, 8, 2.5));
+    }
+
+    @Test
+    public void testValidators() throws Exception {
+        ArgumentParser parser = createParser("validated", int.class, Double.class, String.class);
+
+        Object[] args = parser.parseArguments(Arguments.of("5", "0.5", "abc"));
+        assertThat(args, arrayContaining((Object) 5, 0.5, "abc"));
+
+        assertRejected(parser, "A valid value is greater than or equal to 1.0 (you entered 0)", "0", "0.5", "abc");
+        assertRejected(parser, "A valid value is less than or equal to 10.0 (you entered 11)", "11", "0.5", "abc");
+        assertRejected(parser, "A valid value is less than or equal to 1.0 (you entered 1.5)", "5", "1.5", "abc");
+        assertRejected(parser, "The given text doesn't match the right format (technically speaking, the 'format' is [a-z]+)", "5", "0.5", "ABC");
+    }
+
+    private static void assertRejected(ArgumentParser parser, String message, String... input) throws Exception {
+        try {
+            parser.parseArguments(Arguments.of(input));
+            fail("Expected the arguments to be rejected");
+        } catch (ArgumentParseException e) {
+            assertThat(e.getMessage(), equalTo(message));
+            assertThat(e.getParameter(), notNullValue());
+        }
+    }
+
+    @Test(expected = IllegalParameterException.class)
+    public void testInvalidRegex() throws Exception {
+        createParser("invalidRegex", String.class);
+    }
+
+    @Test(expected = ArgumentParseException.class)
+    public void testParseEmptyPrimitive() throws Exception {
+        createParser().parseArguments(Arguments.of(""));
+    }
+
+    @Test
+    public void testUnusedFlags() throws Exception {
+        ArgumentParser parser = createParser();
+
+        parser.parseArguments(parse("cmd -a 3"), false, ImmutableSet.of('a'));
+        parser.parseArguments(parse("cmd -a -z 3"), true, ImmutableSet.<Character>of());
+
+        try {
+            parser.parseArguments(parse("cmd -a -z 3"), false, ImmutableSet.of('a'));
+            fail("Expected the -z flag to be reported");
+        } catch (UnusedArgumentException e) {
+            assertThat(e.getUnconsumed(), equalTo("-z"));
+        }
+
+        try {
+            Map<Character, String> flags = ImmutableMap.of('f', "true", '\u00e9', "true");
+            parser.parseArguments(Arguments.copyOf(ImmutableList.of("3", "4", "5"), flags, new Namespace()), false, ImmutableSet.<Character>of());
+            fail("Expected the -\u00e9 flag and the argument to be reported");
+        } catch (UnusedArgumentException e) {
+            assertThat(e.getUnconsumed(), equalTo("-\u00e9 5"));
+        }
+    }
+
+    @Test(expected = MissingArgumentException.class)
+    public void testParseMissing() throws Exception {
+        createParser().parseArguments(parse("cmd -f"));
+    }
+
+    @Test
+    public void testAbsentOptionalsSkipProvider() throws Exception {
+        final CountingProvider provider = new CountingProvider();
+        Injector injector = Intake.createInjector();
+        injector.install(new PrimitivesModule());
+        injector.install(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Object.class).toProvider(provider);
+            }
+        });
+        ArgumentParser parser = createParser(injector, "optionals", int.class, Object.class, Object.class);
+
+        assertThat(parser.parseArguments(parse("cmd 3 alpha bravo")), arrayContaining((Object) 3, "alpha", "bravo"));
+        assertThat(provider.calls, is(2));
+
+        provider.calls = 0;
+        assertThat(parser.parseArguments(parse("cmd 3 alpha")), arrayContaining((Object) 3, "alpha", null));
+        assertThat(parser.parseArguments(parse("cmd 3")), arrayContaining((Object) 3, null, null));
+        assertThat(provider.calls, is(1));
+    }
+
+    @Test
+    public void testAbsentOptionalsAskOtherProviders() throws Exception {
+        Injector injector = Intake.createInjector();
+        injector.install(new PrimitivesModule());
+        injector.install(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Object.class).toProvider(new FallbackProvider());
+            }
+        });
+        ArgumentParser parser = createParser(injector, "optionals", int.class, Object.class, Object.class);
+
+        assertThat(parser.parseArguments(parse("cmd 3 alpha")), arrayContaining((Object) 3, "alpha", "fallback"));
+    }
+
+    private static class OffsetProvider implements Provider<Integer> {
+        @Override
+        public boolean isProvided() {
+            return false;
+        }
+
+        @Override
+        public Integer get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+            Integer offset = (Integer) arguments.getNamespace().get("offset");
+            return Integer.parseInt(arguments.next()) + (offset != null ? offset : 0);
+        }
+
+        @Override
+        public List<String> getSuggestions(String prefix) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static class FallbackProvider implements Provider<Object> {
+        @Override
+        public boolean isProvided() {
+            return false;
+        }
+
+        @Override
+        public Object get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+            return arguments.hasNext() ? arguments.next() : "fallback";
+        }
+
+        @Override
+        public List<String> getSuggestions(String prefix) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static class CountingProvider implements Provider<Object>, ConsumingProvider {
+        private int calls;
+
+        @Override
+        public boolean isProvided() {
+            return false;
+        }
+
+        @Override
+        public Object get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+            calls++;
+            return arguments.next();
+        }
+
+        @Override
+        public List<String> getSuggestions(String prefix) {
+            return Collections.emptyList();
+        }
+    }
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.Command;
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.CommandException;
+import com.sk89q.intake.Description;
+import com.sk89q.intake.ImmutableDescription;
+import com.sk89q.intake.Intake;
+import com.sk89q.intake.InvocationCommandException;
+import com.sk89q.intake.Require;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.dispatcher.SimpleDispatcher;
+import com.sk89q.intake.util.auth.AuthorizationException;
+import com.sk89q.intake.util.auth.Authorizer;
+import com.sk89q.intake.util.auth.IndexedAuthorizer;
+import com.sk89q.intake.util.auth.PermissionIndex;
+import com.sk89q.intake.util.auth.PermissionMemo;
+import com.sk89q.intake.util.auth.Subject;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class MethodCallableTest {
+
+    @Test
+    public void testIndexedPermissions() throws Exception {
+        PermissionIndex index = new PermissionIndex();
+        TestAuthorizer authorizer = new TestAuthorizer(index);
+        ParametricBuilder builder = new ParametricBuilder(Intake.createInjector());
+        builder.setAuthorizer(authorizer);
+        builder.setPermissionIndex(index);
+
+        CommandCallable command = builder.build(new TestCommands(), TestCommands.class.getMethod("set"));
+        assertThat(index.getId("region.set"), is(0));
+        assertThat(index.getId("region.admin"), is(1));
+
+        // Without a granted set, every permission string is tested
+        Namespace namespace = new Namespace();
+        assertThat(command.testPermission(namespace), is(false));
+        assertThat(authorizer.stringTests, is(2));
+
+        namespace.put("granted", index.internAll(Arrays.asList("region.admin", "other")));
+        assertThat(command.testPermission(namespace), is(true));
+        namespace.put("granted", index.internAll(Arrays.asList("other")));
+        assertThat(command.testPermission(namespace), is(false));
+        assertThat(authorizer.stringTests, is(2));
+    }
+
+    @Test
+    public void testPermissionMemo() throws Exception {
+        final List<String> tested = new ArrayList<String>();
+        ParametricBuilder builder = new ParametricBuilder(Intake.createInjector());
+        builder.setAuthorizer(new Authorizer() {
+            @Override
+            public boolean testPermission(Namespace namespace, String permission) {
+                tested.add(permission);
+                return true;
+            }
+        });
+
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        SimpleDispatcher region = new SimpleDispatcher();
+        dispatcher.registerCommand(region, "region");
+        region.registerCommand(builder.build(new TestCommands(), TestCommands.class.getMethod("set")), "set");
+
+        Namespace namespace = new Namespace();
+        dispatcher.call("region set", namespace, ImmutableList.<String>of());
+        assertThat(tested, contains("region.set"));
+        assertThat(namespace.containsKey(PermissionMemo.class), is(false));
+
+        dispatcher.call("region set", namespace, ImmutableList.<String>of());
+        assertThat(tested, contains("region.set", "region.set"));
+    }
+
+    @Test
+    public void testPermissionMemoSubject() throws Exception {
+        final Subject admin = new TestSubject();
+        ParametricBuilder builder = new ParametricBuilder(Intake.createInjector());
+        builder.setAuthorizer(new Authorizer() {
+            @Override
+            public boolean testPermission(Namespace namespace, String permission) {
+                return namespace.get(Subject.class) == admin;
+            }
+        });
+
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        SimpleDispatcher region = new SimpleDispatcher();
+        dispatcher.registerCommand(region, "region");
+        dispatcher.registerCommand(new SudoCommand(dispatcher, admin, "region set"), "sudo");
+        TestCommands commands = new TestCommands();
+        region.registerCommand(builder.build(commands, TestCommands.class.getMethod("set")), "set");
+
+        // The user is denied region.set before the subject is replaced
+        Namespace namespace = new Namespace();
+        namespace.put(Subject.class, new TestSubject());
+        dispatcher.call("sudo", namespace, ImmutableList.<String>of());
+        assertThat(commands.calls, is(1));
+    }
+
+    @Test
+    public void testMethodAccess() throws Exception {
+        ParametricBuilder builder = new ParametricBuilder(Intake.createInjector());
+        TestCommands commands = new TestCommands();
+
+        Method method = TestCommands.class.getMethod("count");
+        CommandCallable command = builder.build(commands, method);
+        command.call("", new Namespace(), ImmutableList.<String>of());
+        assertThat(commands.calls, is(1));
+        assertThat(method.isAccessible(), is(false));
+
+        // Private methods are not made accessible
+        command = builder.build(commands, TestCommands.class.getDeclaredMethod("hidden"));
+        try {
+            command.call("", new Namespace(), ImmutableList.<String>of());
+            fail("Expected the private method to be inaccessible");
+        } catch (InvocationCommandException ignored) {
+        }
+        assertThat(commands.calls, is(1));
+    }
+
+    public static class TestCommands {
+        private int calls;
+
+        @Command(aliases = "set", desc = "Set a region")
+        @Require({"region.set", "region.admin"})
+        public void set() {
+            calls++;
+        }
+
+        @Command(aliases = "count", desc = "Count calls")
+        public void count() {
+            calls++;
+        }
+
+        @Command(aliases = "hidden", desc = "Count calls")
+        private void hidden() {
+            calls++;
+        }
+    }
+
+    private static class TestSubject implements Subject {
+        @Override
+        public String[] getGroups() {
+            return new String[0];
+        }
+
+        @Override
+        public void checkPermission(String permission) throws AuthorizationException {
+        }
+
+        @Override
+        public boolean hasPermission(String permission) {
+            return false;
+        }
+    }
+
+    private static class SudoCommand implements CommandCallable {
+        private final CommandCallable dispatcher;
+        private final Subject subject;
+        private final String command;
+
+        private SudoCommand(CommandCallable dispatcher, Subject subject, String command) {
+            this.dispatcher = dispatcher;
+            this.subject = subject;
+            this.command = command;
+        }
+
+        @Override
+        public boolean call(String arguments, Namespace namespace, List<String> parentCommands) throws CommandException, InvocationCommandException, AuthorizationException {
+            Subject previous = namespace.get(Subject.class);
+            namespace.put(Subject.class, subject);
+            try {
+                return dispatcher.call(command, namespace, parentCommands);
+            } finally {
+                namespace.put(Subject.class, previous);
+            }
+        }
+
+        @Override
+        public Description getDescription() {
+            return new ImmutableDescription.Builder().build();
+        }
+
+        @Override
+        public boolean testPermission(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public List<String> getSuggestions(String arguments, Namespace locals) throws CommandException {
+            return ImmutableList.of();
+        }
+    }
+
+    private static class TestAuthorizer implements IndexedAuthorizer {
+        private final PermissionIndex index;
+        private int stringTests;
+
+        private TestAuthorizer(PermissionIndex index) {
+            this.index = index;
+        }
+
+        @Override
+        public BitSet getGrantedPermissions(Namespace namespace) {
+            return (BitSet) namespace.get("granted");
+        }
+
+        @Override
+        public boolean testPermission(Namespace namespace, String permission) {
+            stringTests++;
+            BitSet granted = getGrantedPermissions(namespace);
+            return granted != null && granted.get(index.getId(permission));
+        }
+    }
+
+}
@@ -22,13 +22,19 @@ package com.sk89q.intake.parametric.provider;
 import com.google.common.collect.ImmutableList;
 import com.sk89q.intake.argument.ArgumentParseException;
 import com.sk89q.intake.argument.Arguments;
+import com.sk89q.intake.Intake;
+import com.sk89q.intake.parametric.Injector;
+import com.sk89q.intake.parametric.Key;
+import com.sk89q.intake.parametric.annotation.Text;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
 import java.lang.annotation.Annotation;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 public class EnumProviderTest {
@@ -58,6 +64,30 @@ public class EnumProviderTest {
         assertThat(provider.getSuggestions("tiny"), Matchers.<String>empty());
     }
 
+    @Test
+    public void testSuggestionsAreSorted() throws Exception {
+        assertThat(provider.getSuggestions(""), contains("large", "medium", "small", "very_large"));
+    }
+
+    @Test
+    public void testFirstConstantWins() throws Exception {
+        EnumProvider<Spelling> spellings = new EnumProvider<Spelling>(Spelling.class);
+        assertThat(spellings.get(Arguments.of("GRAY-SCALE"), ImmutableList.<Annotation>of()), is(Spelling.GRAY_SCALE));
+        assertThat(spellings.getSuggestions("grays"), contains("gray_scale", "grayscale"));
+    }
+
+    @Test
+    public void testEnumsAreBoundAutomatically() throws Exception {
+        Injector injector = Intake.createInjector();
+        assertThat(injector.getInstance(Size.class, Arguments.of("medium"), ImmutableList.<Annotation>of()), is(Size.MEDIUM));
+        assertThat(injector.getBinding(Key.get(Size.class, Text.class)), nullValue());
+    }
+
+    enum Spelling {
+        GRAY_SCALE,
+        GRAYSCALE
+    }
+
     enum Size {
         SMALL,
         MEDIUM,
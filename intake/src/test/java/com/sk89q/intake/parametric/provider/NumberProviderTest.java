@@ -0,0 +1,90 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.sk89q.intake.parametric.provider;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.argument.ArgumentParseException;
+import com.sk89q.intake.argument.Arguments;
+import com.sk89q.intake.argument.NumberScanner.Units;
+import com.sk89q.intake.parametric.annotation.Unit;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class NumberProviderTest {
+
+    private static final List<Annotation> NONE = ImmutableList.of();
+
+    @Test
+    public void testInteger() throws Exception {
+        assertThat(IntegerProvider.INSTANCE.get(Arguments.of("-2147483648"), NONE), is(Integer.MIN_VALUE));
+        assertThat(IntegerProvider.INSTANCE.getInt(Arguments.of("42"), NONE), is(42));
+        assertThat(IntegerProvider.INSTANCE.get(Arguments.of(""), NONE), nullValue());
+        assertRejected(IntegerProvider.INSTANCE, "3000000000");
+        assertRejected(IntegerProvider.INSTANCE, "1.5");
+    }
+
+    @Test
+    public void testShort() throws Exception {
+        assertThat(ShortProvider.INSTANCE.get(Arguments.of("-32768"), NONE), is(Short.MIN_VALUE));
+        assertThat(ShortProvider.INSTANCE.getInt(Arguments.of("32767"), NONE), is((int) Short.MAX_VALUE));
+        assertRejected(ShortProvider.INSTANCE, "32768");
+        assertRejected(ShortProvider.INSTANCE, "1.5");
+    }
+
+    @Test
+    public void testUnits() throws Exception {
+        List<Annotation> metric = ImmutableList.<Annotation>of(new MetricUnit());
+        assertThat(IntegerProvider.INSTANCE.getInt(Arguments.of("5k"), metric), is(5000));
+        try {
+            ShortProvider.INSTANCE.getInt(Arguments.of("50k"), metric);
+            fail("Expected 50k to be out of range");
+        } catch (ArgumentParseException ignored) {
+        }
+    }
+
+    private static void assertRejected(NumberProvider<?> provider, String input) throws Exception {
+        try {
+            provider.get(Arguments.of(input), NONE);
+            fail("Expected '" + input + "' to be rejected");
+        } catch (ArgumentParseException ignored) {
+        }
+    }
+
+    private static class MetricUnit implements Unit {
+        @Override
+        public Units value() {
+            return Units.METRIC;
+        }
+
+        @Override
+        public Class<? extends Annotation> annotationType() {
+            return Unit.class;
+        }
+    }
+
+}
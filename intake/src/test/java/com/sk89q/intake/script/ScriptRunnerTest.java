@@ -0,0 +1,215 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.script;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.CommandException;
+import com.sk89q.intake.Description;
+import com.sk89q.intake.ImmutableDescription;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.util.auth.PermissionMemo;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.channels.Channels;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ScriptRunnerTest {
+
+    private static ScriptResult run(ScriptRunner runner, String script) throws Exception {
+        byte[] bytes = script.getBytes(Charsets.UTF_8);
+        return runner.run(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        RecordingCommand command = new RecordingCommand();
+        ScriptRunner runner = new ScriptRunner.Builder().setCallable(command).build();
+
+        ScriptResult result = run(runner, "\uFEFFsay hello\r\n\n  # a comment\n   say  two\nsay last");
+        assertThat(command.lines, contains("say hello", "say  two", "say last"));
+        assertThat(result.getLineCount(), is(5L));
+        assertThat(result.getCommandCount(), is(3L));
+        assertThat(result.getFailures(), Matchers.<ScriptFailure>empty());
+    }
+
+    @Test
+    public void testFailuresDoNotAbort() throws Exception {
+        RecordingCommand command = new RecordingCommand();
+        ScriptRunner runner = new ScriptRunner.Builder().setCallable(command).build();
+
+        ScriptResult result = run(runner, "say one\nfail\nsay two\n");
+        assertThat(command.lines, contains("say one", "fail", "say two"));
+        assertThat(result.getFailures().size(), is(1));
+        assertThat(result.getFailures().get(0).getLineNumber(), is(2L));
+        assertThat(result.getFailures().get(0).getLine(), equalTo("fail"));
+        assertThat(result.getFailures().get(0).getCause(), instanceOf(CommandException.class));
+    }
+
+    @Test
+    public void testSharedNamespace() throws Exception {
+        RecordingCommand command = new RecordingCommand();
+        Namespace namespace = new Namespace();
+        ScriptRunner runner = new ScriptRunner.Builder().setCallable(command).setNamespace(namespace).build();
+
+        run(runner, "a\nb\n");
+        assertThat(command.namespaces, contains(namespace, namespace));
+    }
+
+    @Test
+    public void testLongLinesAcrossBuffers() throws Exception {
+        RecordingCommand command = new RecordingCommand();
+        ScriptRunner runner = new ScriptRunner.Builder().setCallable(command).build();
+        // Multi-byte characters are split between reads of the channel
+        String line = "say " + Strings.repeat("\u00e9\u4e16", 10000);
+
+        run(runner, line + "\n" + line);
+        assertThat(command.lines, contains(line, line));
+    }
+
+    @Test
+    public void testRunFile() throws Exception {
+        RecordingCommand command = new RecordingCommand();
+        ScriptRunner runner = new ScriptRunner.Builder().setCallable(command).build();
+        String line = "say " + Strings.repeat("\u00e9", 5000);
+
+        File file = File.createTempFile("intake", ".txt");
+        try {
+            FileOutputStream out = new FileOutputStream(file);
+            try {
+                out.write(("# script\n" + line + "\nfail").getBytes(Charsets.UTF_8));
+            } finally {
+                out.close();
+            }
+
+            ScriptResult result = runner.run(file);
+            assertThat(command.lines, contains(line, "fail"));
+            assertThat(result.getFailures().size(), is(1));
+            assertThat(result.getFailures().get(0).getLineNumber(), is(3L));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        RecordingCommand command = new RecordingCommand();
+        Namespace namespace = new Namespace();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ScriptRunner runner = new ScriptRunner.Builder()
+                    .setCallable(command)
+                    .setNamespace(namespace)
+                    .setExecutor(executor)
+                    .setMaxBatchSize(2)
+                    .build();
+
+            ScriptResult result = run(runner, "first\n#parallel\na\nfail\nb\nc\n#end\nlast\n");
+            assertThat(command.lines.size(), is(6));
+            assertThat(command.lines.get(0), equalTo("first"));
+            assertThat(command.lines.subList(1, 5), containsInAnyOrder("a", "fail", "b", "c"));
+            assertThat(command.lines.get(5), equalTo("last"));
+            assertThat(command.namespaces.get(0), sameInstance(namespace));
+            assertThat(command.namespaces.get(1), not(sameInstance(namespace)));
+            assertThat(command.namespaces.get(5), sameInstance(namespace));
+            assertThat(result.getCommandCount(), is(6L));
+            assertThat(result.getFailures().size(), is(1));
+            assertThat(result.getFailures().get(0).getLineNumber(), is(4L));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelWithMemo() throws Exception {
+        RecordingCommand command = new RecordingCommand();
+        Namespace namespace = new Namespace();
+        PermissionMemo.install(namespace);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ScriptRunner runner = new ScriptRunner.Builder()
+                    .setCallable(command)
+                    .setNamespace(namespace)
+                    .setExecutor(executor)
+                    .build();
+
+            run(runner, "first\n#parallel\na\nb\nc\n#end\n");
+            assertThat(command.memos.get(0), is(true));
+            assertThat(command.memos.subList(1, 4), everyItem(is(false)));
+            assertThat(namespace.containsKey(PermissionMemo.class), is(true));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelWithoutExecutor() throws Exception {
+        RecordingCommand command = new RecordingCommand();
+        ScriptRunner runner = new ScriptRunner.Builder().setCallable(command).build();
+
+        run(runner, "#parallel\na\nb\nc\n");
+        assertThat(command.lines, contains("a", "b", "c"));
+    }
+
+    private static class RecordingCommand implements CommandCallable {
+        private final List<String> lines = new CopyOnWriteArrayList<String>();
+        private final List<Namespace> namespaces = new CopyOnWriteArrayList<Namespace>();
+        private final List<Boolean> memos = new CopyOnWriteArrayList<Boolean>();
+
+        @Override
+        public boolean call(String arguments, Namespace namespace, List<String> parentCommands) throws CommandException {
+            lines.add(arguments);
+            namespaces.add(namespace);
+            memos.add(namespace.containsKey(PermissionMemo.class));
+            if (arguments.equals("fail")) {
+                throw new CommandException("Failed");
+            }
+            return true;
+        }
+
+        @Override
+        public Description getDescription() {
+            return new ImmutableDescription.Builder().build();
+        }
+
+        @Override
+        public boolean testPermission(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public List<String> getSuggestions(String arguments, Namespace locals) {
+            return Collections.emptyList();
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.auth;
+
+import com.google.common.base.Function;
+import com.sk89q.intake.argument.Namespace;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CachingAuthorizerTest {
+
+    private final CountingAuthorizer counting = new CountingAuthorizer();
+    private final CachingAuthorizer authorizer = new CachingAuthorizer.Builder()
+            .setAuthorizer(counting)
+            .setSubjectFunction(new Function<Namespace, Object>() {
+                @Override
+                public Object apply(Namespace namespace) {
+                    return namespace.get("name");
+                }
+            })
+            .setMaximumSize(100)
+            .setExpireAfterWrite(1, TimeUnit.HOURS)
+            .build();
+
+    @Test
+    public void testCachesPerSubject() throws Exception {
+        Namespace alice = createNamespace("alice");
+        Namespace bob = createNamespace("bob");
+
+        assertThat(authorizer.testPermission(alice, "alice.build"), is(true));
+        assertThat(authorizer.testPermission(alice, "alice.build"), is(true));
+        assertThat(authorizer.testPermission(bob, "alice.build"), is(false));
+        assertThat(authorizer.testPermission(bob, "alice.build"), is(false));
+
+        assertThat(counting.calls, is(2));
+        assertThat(authorizer.getHitCount(), is(2L));
+        assertThat(authorizer.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void testNoSubjectIsNotCached() throws Exception {
+        Namespace namespace = new Namespace();
+        authorizer.testPermission(namespace, "build");
+        authorizer.testPermission(namespace, "build");
+        assertThat(counting.calls, is(2));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        Namespace alice = createNamespace("alice");
+        Namespace bob = createNamespace("bob");
+
+        authorizer.testPermission(alice, "build");
+        authorizer.testPermission(bob, "build");
+        authorizer.invalidate("alice");
+        authorizer.testPermission(alice, "build");
+        authorizer.testPermission(bob, "build");
+        assertThat(counting.calls, is(3));
+
+        authorizer.invalidateAll();
+        authorizer.testPermission(alice, "build");
+        authorizer.testPermission(bob, "build");
+        assertThat(counting.calls, is(5));
+    }
+
+    @Test
+    public void testInvalidateWhileTesting() throws Exception {
+        final Namespace alice = createNamespace("alice");
+        counting.during = new Runnable() {
+            @Override
+            public void run() {
+                authorizer.invalidate("alice");
+            }
+        };
+
+        authorizer.testPermission(alice, "build");
+        counting.during = null;
+        authorizer.testPermission(alice, "build");
+        authorizer.testPermission(alice, "build");
+        assertThat(counting.calls, is(2));
+    }
+
+    private static Namespace createNamespace(String name) {
+        Namespace namespace = new Namespace();
+        namespace.put("name", name);
+        return namespace;
+    }
+
+    private static class CountingAuthorizer implements Authorizer {
+        private int calls;
+        @Nullable
+        private Runnable during;
+
+        @Override
+        public boolean testPermission(Namespace namespace, String permission) {
+            calls++;
+            if (during != null) {
+                during.run();
+            }
+            return permission.startsWith(namespace.get("name") + ".");
+        }
+    }
+
+}
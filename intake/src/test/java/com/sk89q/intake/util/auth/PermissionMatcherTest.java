@@ -0,0 +1,106 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.auth;
+
+import com.google.common.base.Function;
+import com.sk89q.intake.argument.Namespace;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PermissionMatcherTest {
+
+    @Test
+    public void testExact() throws Exception {
+        PermissionMatcher matcher = PermissionMatcher.compile("worldedit.region.set", "worldguard");
+        assertThat(matcher.matches("worldedit.region.set"), is(true));
+        assertThat(matcher.matches("WorldEdit.Region.Set"), is(true));
+        assertThat(matcher.matches("worldedit.region"), is(false));
+        assertThat(matcher.matches("worldedit.region.set.other"), is(false));
+        assertThat(matcher.matches("worldguard"), is(true));
+        assertThat(matcher.matches("worldguard.region"), is(false));
+    }
+
+    @Test
+    public void testWildcard() throws Exception {
+        PermissionMatcher matcher = PermissionMatcher.compile("worldedit.*");
+        assertThat(matcher.matches("worldedit.region"), is(true));
+        assertThat(matcher.matches("worldedit.region.set"), is(true));
+        assertThat(matcher.matches("worldedit"), is(false));
+        assertThat(matcher.matches("worldguard.region"), is(false));
+
+        PermissionMatcher all = PermissionMatcher.compile("*");
+        assertThat(all.matches("worldedit"), is(true));
+        assertThat(all.matches("worldedit.region.set"), is(true));
+    }
+
+    @Test
+    public void testMostSpecificWins() throws Exception {
+        PermissionMatcher matcher = PermissionMatcher.compile(
+                "worldedit.*", "-worldedit.region.*", "worldedit.region.info", "-worldedit.history");
+        assertThat(matcher.matches("worldedit.navigation.up"), is(true));
+        assertThat(matcher.matches("worldedit.region.set"), is(false));
+        assertThat(matcher.matches("worldedit.region.info"), is(true));
+        assertThat(matcher.matches("worldedit.region"), is(true));
+        assertThat(matcher.matches("worldedit.history"), is(false));
+        assertThat(matcher.matches("worldedit.history.undo"), is(true));
+    }
+
+    @Test
+    public void testDenialWinsTies() throws Exception {
+        PermissionMatcher matcher = PermissionMatcher.compile("-worldedit.*", "worldedit.*", "worldedit.wand", "-worldedit.wand");
+        assertThat(matcher.matches("worldedit.region"), is(false));
+        assertThat(matcher.matches("worldedit.wand"), is(false));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertThat(PermissionMatcher.empty().matches("worldedit"), is(false));
+        assertThat(PermissionMatcher.compile().matches("worldedit"), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInnerWildcard() throws Exception {
+        PermissionMatcher.compile("worldedit.*.set");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptySegment() throws Exception {
+        PermissionMatcher.compile("worldedit..set");
+    }
+
+    @Test
+    public void testAuthorizer() throws Exception {
+        final PermissionMatcher matcher = PermissionMatcher.compile("worldedit.*");
+        Authorizer authorizer = new MatcherAuthorizer(new Function<Namespace, PermissionMatcher>() {
+            @Override
+            public PermissionMatcher apply(Namespace namespace) {
+                return namespace.containsKey("admin") ? matcher : null;
+            }
+        });
+
+        Namespace namespace = new Namespace();
+        assertThat(authorizer.testPermission(namespace, "worldedit.region"), is(false));
+        namespace.put("admin", true);
+        assertThat(authorizer.testPermission(namespace, "worldedit.region"), is(true));
+    }
+
+}